@@ -0,0 +1,95 @@
+package com.jeroenreijn.examples.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.web.util.HtmlUtils;
+
+import com.jeroenreijn.examples.model.EncodedPresentation;
+import com.jeroenreijn.examples.model.Presentation;
+
+import htmlflow.DynamicHtml;
+import htmlflow.HtmlView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the HtmlFlow page in chunks: the start of the page, then the cards of the presentations as they arrive and
+ * finally the end of the page. HtmlFlow closes every element it opens, so it renders the cards and the surrounding
+ * markup, with the title from the messages like on the other pages, is written as is.
+ */
+class HtmlFlowCards {
+	private static final String PAGE_HEAD = "<!DOCTYPE html>\n<html>\n<head>\n"
+			+ "<meta charset=\"UTF-8\">\n"
+			+ "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n"
+			+ "<meta http-equiv=\"X-UA-Compatible\" content=\"IE=Edge\">\n";
+
+	private static final String PAGE_END = "</div>\n"
+			+ "<script src=\"/webjars/jquery/3.1.1/jquery.min.js\"></script>\n"
+			+ "<script src=\"/webjars/bootstrap/4.3.1/js/bootstrap.min.js\"></script>\n"
+			+ "</body>\n</html>\n";
+
+	/**
+	 * A chunk is written once it holds this many cards, or when no card arrived for {@link #MAX_WAIT}.
+	 */
+	private static final int CARDS_PER_CHUNK = 64;
+	private static final Duration MAX_WAIT = Duration.ofMillis(10);
+
+	private static final HtmlView<Presentation> card = DynamicHtml.view(HtmlFlowCards::card).threadSafe();
+
+	private HtmlFlowCards() {
+	}
+
+	static Flux<Mono<DataBuffer>> page(String title, Flux<Presentation> presentations,
+			DataBufferFactory bufferFactory) {
+		Flux<String> cards = presentations
+				.map(card::render)
+				.bufferTimeout(CARDS_PER_CHUNK, MAX_WAIT)
+				.map(chunk -> String.join("", chunk));
+
+		return Flux.concat(Flux.just(pageStart(title)), cards, Flux.just(PAGE_END))
+				.map(chunk -> Mono.just(bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	private static String pageStart(String title) {
+		String heading = HtmlUtils.htmlEscape(title) + " - HtmlFlow";
+		return PAGE_HEAD
+				+ "<title>" + heading + "</title>\n"
+				+ "<link rel=\"stylesheet\" href=\"/webjars/bootstrap/4.3.1/css/bootstrap.min.css\" media=\"screen\">\n"
+				+ "</head>\n<body>\n<div class=\"container\">\n"
+				+ "<div class=\"pb-2 mt-4 mb-3 border-bottom\">\n<h1>" + heading + "</h1>\n</div>\n";
+	}
+
+	/**
+	 * HtmlFlow writes text as it is. Pre-encoded presentations hand out their stored escaped forms, the others their
+	 * text, as this view always wrote it. The summary is markup, which every template writes as it is.
+	 */
+	private static String cardTitle(Presentation presentation) {
+		if (presentation instanceof EncodedPresentation) {
+			return presentation.getTitleText().getHtml() + " - " + presentation.getSpeakerNameText().getHtml();
+		}
+		return presentation.getTitle() + " - " + presentation.getSpeakerName();
+	}
+
+	private static void card(DynamicHtml<Presentation> view, Presentation presentation) {
+		view
+			.div().attrClass("card mb-3 shadow-sm rounded")
+				.div().attrClass("card-header")
+					.h5()
+						.dynamic(h5 -> h5
+							.attrClass("card-title")
+							.text(cardTitle(presentation))
+						)
+					.__() // h5
+				.__() // div
+				.div()
+					.dynamic(d -> d
+						.attrClass("card-body")
+						.text(presentation.getSummary())
+					)
+				.__() // div
+			.__(); // div
+	}
+}
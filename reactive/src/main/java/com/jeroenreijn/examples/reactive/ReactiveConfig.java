@@ -0,0 +1,47 @@
+package com.jeroenreijn.examples.reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.jeroenreijn.examples.repository.InMemoryPresentationsRepository;
+import com.jeroenreijn.examples.repository.PresentationsGenerator;
+import com.jeroenreijn.examples.repository.PresentationsRepository;
+
+@Configuration
+public class ReactiveConfig {
+	@Value("${presentations.pre-encoded:false}")
+	private boolean presentationsPreEncoded;
+
+	/**
+	 * Delay before every presentation is emitted, to see the pages stream while the data arrives.
+	 */
+	@Value("${presentations.reactive.delay-millis:0}")
+	private long presentationsDelayMillis;
+
+	@Bean
+	@ConfigurationProperties(prefix = "presentations.generator")
+	public PresentationsGenerator presentationsGenerator() {
+		return new PresentationsGenerator();
+	}
+
+	@Bean
+	public PresentationsRepository presentationsRepository() {
+		PresentationsGenerator generator = presentationsGenerator();
+		if (generator.isEnabled()) {
+			return new InMemoryPresentationsRepository(generator.generate(), presentationsPreEncoded);
+		}
+
+		return new InMemoryPresentationsRepository(InMemoryPresentationsRepository.defaultPresentations(),
+				presentationsPreEncoded);
+	}
+
+	@Bean
+	public ReactivePresentationsRepository reactivePresentationsRepository() {
+		return new ReactivePresentationsRepository(presentationsRepository(),
+				Duration.ofMillis(presentationsDelayMillis));
+	}
+}
@@ -0,0 +1,11 @@
+package com.jeroenreijn.examples.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveLaunch {
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveLaunch.class, args);
+	}
+}
@@ -0,0 +1,88 @@
+package com.jeroenreijn.examples.reactive;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
+import org.thymeleaf.spring5.context.webflux.ReactiveDataDriverContextVariable;
+
+import com.jeroenreijn.examples.model.Presentation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the same {@code /{template}} listing as the servlet application. Thymeleaf and HtmlFlow write the page
+ * while the presentations arrive; FreeMarker and Mustache get the presentations as a list once all have arrived.
+ */
+@Controller
+public class ReactivePresentationsController {
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	@Autowired
+	private ReactivePresentationsRepository presentationsRepository;
+
+	@Autowired
+	private MessageSource messageSource;
+
+	/**
+	 * The number of presentations Thymeleaf renders before it writes a chunk of the page.
+	 */
+	@Value("${templates.reactive.buffer-size:16}")
+	private int bufferSize;
+
+	@GetMapping("/")
+	public String home(ServerWebExchange exchange, Model model) {
+		return showList(exchange, "thymeleaf", null, null, null, model);
+	}
+
+	@GetMapping("/{template}")
+	public String showList(ServerWebExchange exchange, @PathVariable("template") String template,
+			@RequestParam(value = "page", required = false) Integer page,
+			@RequestParam(value = "size", required = false) Integer size,
+			@RequestParam(value = "after", required = false) Long after, Model model) {
+		Flux<Presentation> presentations = find(page, size, after);
+		if ("thymeleaf".equals(template)) {
+			model.addAttribute("presentations", new ReactiveDataDriverContextVariable(presentations, bufferSize));
+		} else {
+			model.addAttribute("presentations", presentations);
+		}
+		model.addAttribute("title",
+				messageSource.getMessage("example.title", null, exchange.getLocaleContext().getLocale()));
+
+		return "index-" + template;
+	}
+
+	@GetMapping("/htmlFlow")
+	public Mono<Void> htmlFlow(ServerWebExchange exchange,
+			@RequestParam(value = "page", required = false) Integer page,
+			@RequestParam(value = "size", required = false) Integer size,
+			@RequestParam(value = "after", required = false) Long after) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.getHeaders().setContentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8));
+		String title = messageSource.getMessage("example.title", null, exchange.getLocaleContext().getLocale());
+		return response.writeAndFlushWith(
+				HtmlFlowCards.page(title, find(page, size, after), response.bufferFactory()));
+	}
+
+	private Flux<Presentation> find(Integer page, Integer size, Long after) {
+		if (size == null) {
+			return presentationsRepository.findAll();
+		}
+
+		int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+		if (after != null) {
+			return presentationsRepository.findAfter(after, pageSize);
+		}
+		return presentationsRepository.findPage(page == null ? 0 : Math.max(page, 0), pageSize);
+	}
+}
@@ -0,0 +1,42 @@
+package com.jeroenreijn.examples.reactive;
+
+import java.time.Duration;
+
+import com.jeroenreijn.examples.model.Presentation;
+import com.jeroenreijn.examples.repository.PresentationsRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Emits the presentations of a {@link PresentationsRepository} one by one. Nothing is read before a page subscribes,
+ * and with a delay every presentation arrives on its own, like rows from a non-blocking database driver.
+ */
+public class ReactivePresentationsRepository {
+	private final PresentationsRepository repository;
+	private final Duration delay;
+
+	public ReactivePresentationsRepository(PresentationsRepository repository, Duration delay) {
+		this.repository = repository;
+		this.delay = delay;
+	}
+
+	public Flux<Presentation> findAll() {
+		return delayed(Flux.defer(() -> Flux.fromIterable(repository.findAll())));
+	}
+
+	/**
+	 * One page of presentations ordered by id, pages start at 0.
+	 */
+	public Flux<Presentation> findPage(int page, int size) {
+		int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE);
+		return delayed(Flux.defer(() -> Flux.fromIterable(repository.findAll(offset, size))));
+	}
+
+	public Flux<Presentation> findAfter(Long afterId, int size) {
+		return delayed(Flux.defer(() -> Flux.fromIterable(repository.findAllAfter(afterId, size))));
+	}
+
+	private Flux<Presentation> delayed(Flux<Presentation> presentations) {
+		return delay.isZero() ? presentations : presentations.delayElements(delay);
+	}
+}
@@ -0,0 +1,30 @@
+[#ftl]
+<!DOCTYPE html>
+<html>
+<head>
+  <meta charset="UTF-8"/>
+  <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
+  <meta http-equiv="X-UA-Compatible" content="IE=Edge"/>
+  <title>${title} - Freemarker</title>
+  <link rel="stylesheet" href="/webjars/bootstrap/4.3.1/css/bootstrap.min.css" media="screen" />
+</head>
+<body>
+<div class="container">
+<div class="pb-2 mt-4 mb-3 border-bottom">
+  <h1>${title} - Freemarker</h1>
+</div>
+    [#list presentations as presentation]
+        <div class="card mb-3 shadow-sm rounded">
+            <div class="card-header">
+                <h5 class="card-title">${presentation.title} - ${presentation.speakerName}</h5>
+            </div>
+            <div class="card-body">
+            ${presentation.summary}
+            </div>
+        </div>
+    [/#list]
+</div>
+<script src="/webjars/jquery/3.1.1/jquery.min.js"></script>
+<script src="/webjars/bootstrap/4.3.1/js/bootstrap.min.js"></script>
+</body>
+</html>
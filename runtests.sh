@@ -1,9 +1,18 @@
 #!/bin/bash
 #set -x
+# Usage: ./runtests.sh [address] [profile] [--name=value ...]
+#
+# Runs LoadTest, see its javadoc for all options. Without an address the application is started in-process with
+# the given profile (production by default); with an address the tests run against the application that is
+# already running on <address>:8080. The results are written to target/load-test.
 ADRESS=$1
-TESTS=(jsp velocity freemarker thymeleaf mustache jade pebble handlebars jtwig scalate httl chunk htmlFlow trimou rocker ickenham rythm groovy liqp)
+PROFILE=${2:-production}
+shift 2 2>/dev/null || shift $#
 
-for ip in "${TESTS[@]}"; do
-  result=`ab -q -n 1000 -c 10 http://$ADRESS:8080/$ip | grep "Time taken for tests"`
-  echo $ip $result
-done
+ARGS="--profile=$PROFILE $*"
+if [ -n "$ADRESS" ]; then
+  ARGS="--url=http://$ADRESS:8080 $ARGS"
+fi
+
+mvn -q test-compile exec:java -Dexec.mainClass=com.jeroenreijn.benchmark.LoadTest -Dexec.classpathScope=test \
+  -Dexec.args="$ARGS"
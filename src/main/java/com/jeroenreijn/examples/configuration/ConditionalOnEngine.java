@@ -0,0 +1,25 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Only registers the bean or configuration when the template engine is selected by {@code engines.enabled}.
+ *
+ * @see Engines
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+@Conditional(OnEngineCondition.class)
+public @interface ConditionalOnEngine {
+	/**
+	 * The name of the engine, one of {@link Engines#NAMES}.
+	 */
+	String value();
+}
@@ -0,0 +1,165 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Requests the listing page of every enabled engine a number of times once the application has started, so
+ * templates are loaded and compiled and the render path is compiled by the JIT before real traffic arrives. Engines
+ * are warmed up in parallel on threads of their own, so they do not hold up the startup. Until all of them are done
+ * the health of the application is {@code OUT_OF_SERVICE}, which keeps it out of a load balancer that checks
+ * {@code /actuator/health}. An engine that fails to render does not stop the others; it is listed as {@code failed}
+ * in the health details.
+ *
+ * The requests go through the embedded server, so JSPs are compiled as well; they ask for a fresh page, so the
+ * rendered page cache does not answer them.
+ */
+public class EngineWarmup implements ApplicationListener<ApplicationReadyEvent>, HealthIndicator, DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(EngineWarmup.class);
+
+	private boolean enabled = false;
+	private int iterations = 20;
+	private int parallelism = 4;
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+	private final Set<String> failed = ConcurrentHashMap.newKeySet();
+	private volatile boolean done;
+	private volatile ExecutorService executor;
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		ApplicationContext context = event.getApplicationContext();
+		if (!enabled || iterations <= 0) {
+			done = true;
+			return;
+		}
+		if (!(context instanceof WebServerApplicationContext)
+				|| ((WebServerApplicationContext) context).getWebServer() == null) {
+			LOGGER.info("Not running in an embedded server, skipping the warm-up");
+			done = true;
+			return;
+		}
+
+		Environment environment = context.getEnvironment();
+		String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+				+ environment.getProperty("server.servlet.context-path", "");
+		Set<String> engines = Engines.enabled(environment);
+		pending.addAll(engines);
+
+		long start = System.nanoTime();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("warmup-");
+		threadFactory.setDaemon(true);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, engines.size())),
+				threadFactory);
+		this.executor = executor;
+
+		CompletableFuture<?>[] warmups = engines.stream()
+				.map(engine -> CompletableFuture.runAsync(() -> warmUp(engine, baseUrl + "/" + engine), executor))
+				.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(warmups).whenComplete((result, e) -> {
+			executor.shutdown();
+			if (e != null) {
+				LOGGER.warn("Warm-up stopped, not warmed up: {}", pending);
+				return;
+			}
+			done = true;
+			LOGGER.info("Warmed up {} engines in {} ms", engines.size() - failed.size(),
+					(System.nanoTime() - start) / 1000000);
+		});
+	}
+
+	private void warmUp(String engine, String url) {
+		try {
+			double first = render(url);
+			// The average of the last quarter of the renders, the first ones are still being compiled
+			int measured = Math.max(1, iterations / 4);
+			double total = 0;
+			for (int i = 1; i < iterations; i++) {
+				double millis = render(url);
+				if (i >= iterations - measured) {
+					total += millis;
+				}
+			}
+			double after = iterations > 1 ? total / Math.min(measured, iterations - 1) : first;
+
+			LOGGER.info(String.format("Warmed up %s: first render %.1f ms, after %d renders %.1f ms", engine, first,
+					iterations, after));
+		} catch (IOException | RuntimeException e) {
+			failed.add(engine);
+			LOGGER.warn("Could not warm up {}: {}", engine, e.toString());
+		} finally {
+			pending.remove(engine);
+		}
+	}
+
+	/**
+	 * Requests the page and returns the time until its last byte was read, in milliseconds.
+	 */
+	private static double render(String url) throws IOException {
+		long start = System.nanoTime();
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestProperty(HttpHeaders.CACHE_CONTROL, "no-cache");
+		int status = connection.getResponseCode();
+		if (status != HttpURLConnection.HTTP_OK) {
+			connection.disconnect();
+			throw new IOException(url + " answered with status " + status);
+		}
+		byte[] buffer = new byte[8192];
+		try (InputStream in = connection.getInputStream()) {
+			while (in.read(buffer) >= 0) {
+				// read the whole page
+			}
+		}
+		return (System.nanoTime() - start) / 1000000.0;
+	}
+
+	@Override
+	public void destroy() {
+		ExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public Health health() {
+		if (done) {
+			return failed.isEmpty() ? Health.up().build()
+					: Health.up().withDetail("failed", new ArrayList<>(failed)).build();
+		}
+		return Health.outOfService().withDetail("pending", new ArrayList<>(pending)).build();
+	}
+}
@@ -0,0 +1,83 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * The template engines of this application and the {@code engines.enabled} property that selects which of them are
+ * initialized: {@code all}, the default, or a comma separated list such as {@code jsp,rocker}.
+ */
+public final class Engines {
+	public static final String PROPERTY = "engines.enabled";
+
+	public static final String ALL = "all";
+
+	public static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList("jsp", "freemarker",
+			"velocity", "thymeleaf", "mustache", "jade", "pebble", "handlebars", "jtwig", "scalate", "httl", "chunk",
+			"htmlFlow", "trimou", "rocker", "ickenham", "rythm", "groovy", "liqp", "kotlinx"));
+
+	private static final String VIEW_RESOLVER = "ViewResolver";
+
+	/**
+	 * The view resolver beans whose name, without {@code ViewResolver}, is not the name of their engine. The other
+	 * names match an engine regardless of case, such as {@code freeMarkerViewResolver} of Spring Boot.
+	 */
+	private static final Map<String, String> VIEW_RESOLVER_ALIASES = new HashMap<>();
+
+	static {
+		VIEW_RESOLVER_ALIASES.put("groovyMarkup", "groovy");
+		VIEW_RESOLVER_ALIASES.put("kotlinxHtml", "kotlinx");
+	}
+
+	private Engines() {
+	}
+
+	public static Set<String> enabled(Environment environment) {
+		Set<String> names = StringUtils.commaDelimitedListToSet(
+				StringUtils.trimAllWhitespace(environment.getProperty(PROPERTY, ALL)));
+		if (names.isEmpty() || names.contains(ALL)) {
+			return new LinkedHashSet<>(NAMES);
+		}
+
+		for (String name : names) {
+			if (!NAMES.contains(name)) {
+				throw new IllegalArgumentException("Unknown engine '" + name + "' in " + PROPERTY + ", expected "
+						+ ALL + " or some of " + NAMES);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * The engine of the view resolver bean with the given name, or {@code null} when it belongs to no engine.
+	 */
+	public static String ofViewResolver(String beanName) {
+		if (!beanName.endsWith(VIEW_RESOLVER)) {
+			return null;
+		}
+
+		String prefix = beanName.substring(0, beanName.length() - VIEW_RESOLVER.length());
+		String alias = VIEW_RESOLVER_ALIASES.get(prefix);
+		if (alias != null) {
+			return alias;
+		}
+		for (String name : NAMES) {
+			if (name.equalsIgnoreCase(prefix)) {
+				return name;
+			}
+		}
+		return null;
+	}
+
+	public static boolean isEnabled(Environment environment, String name) {
+		return enabled(environment).contains(name);
+	}
+}
@@ -0,0 +1,66 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+/**
+ * Excludes the auto-configuration of the engines that Spring Boot sets up, when they are not selected by
+ * {@code engines.enabled}. Runs after the application properties are loaded, so the property may be set there.
+ */
+public class EnginesEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+	private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+	private static final Map<String, String[]> AUTO_CONFIGURATIONS = new LinkedHashMap<>();
+
+	static {
+		AUTO_CONFIGURATIONS.put("freemarker", new String[] {
+				"org.springframework.boot.autoconfigure.freemarker.FreeMarkerAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("velocity", new String[] {
+				"org.springframework.boot.autoconfigure.velocity.VelocityAutoConfiguration",
+				"com.alibaba.boot.velocity.autoconfigure.VelocityToolsAutoConfiguration",
+				"com.alibaba.boot.velocity.autoconfigure.VelocityLayoutAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("thymeleaf", new String[] {
+				"org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("mustache", new String[] {
+				"org.springframework.boot.autoconfigure.mustache.MustacheAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("pebble", new String[] {
+				"com.mitchellbosecke.pebble.boot.autoconfigure.PebbleAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("jtwig", new String[] { "org.jtwig.spring.boot.JtwigAutoConfiguration" });
+		AUTO_CONFIGURATIONS.put("groovy", new String[] {
+				"org.springframework.boot.autoconfigure.groovy.template.GroovyTemplateAutoConfiguration" });
+	}
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		Set<String> enabled = Engines.enabled(environment);
+
+		Set<String> excludes = new LinkedHashSet<>(
+				StringUtils.commaDelimitedListToSet(environment.getProperty(EXCLUDE_PROPERTY, "")));
+		for (Map.Entry<String, String[]> entry : AUTO_CONFIGURATIONS.entrySet()) {
+			if (!enabled.contains(entry.getKey())) {
+				Collections.addAll(excludes, entry.getValue());
+			}
+		}
+		excludes.remove("");
+
+		if (!excludes.isEmpty()) {
+			environment.getPropertySources().addFirst(new MapPropertySource("engines",
+					Collections.singletonMap(EXCLUDE_PROPERTY, StringUtils.collectionToCommaDelimitedString(excludes))));
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+}
@@ -7,12 +7,14 @@ import org.jtwig.translate.spring.SpringTranslateExtension;
 import org.jtwig.translate.spring.SpringTranslateExtensionConfiguration;
 import org.jtwig.web.servlet.JtwigRenderer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.web.servlet.LocaleResolver;
 
 @Configuration
+@ConditionalOnEngine("jtwig")
 @Import({ WebMvcConfig.class })
 public class JtwigConfig implements JtwigViewResolverConfigurer {
 	@Autowired
@@ -21,6 +23,9 @@ public class JtwigConfig implements JtwigViewResolverConfigurer {
 	@Autowired
 	private LocaleResolver localeResolver;
 
+	@Value("${templates.cache:false}")
+	private boolean templatesCache;
+
 	@Override
 	public void configure(JtwigViewResolver viewResolver) {
 		viewResolver.setRenderer(
@@ -37,5 +42,6 @@ public class JtwigConfig implements JtwigViewResolverConfigurer {
 		viewResolver.setViewNames("*-jtwig");
 		viewResolver.setPrefix("/WEB-INF/jtwig/");
 		viewResolver.setSuffix(".twig");
+		viewResolver.setCache(templatesCache);
 	}
 }
@@ -0,0 +1,15 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+class OnEngineCondition implements Condition {
+	@Override
+	public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnEngine.class.getName());
+		return attributes != null && Engines.isEnabled(context.getEnvironment(), (String) attributes.get("value"));
+	}
+}
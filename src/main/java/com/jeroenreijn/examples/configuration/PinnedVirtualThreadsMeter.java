@@ -0,0 +1,172 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Counts per engine the times a virtual thread blocked while it was pinned to its carrier thread, for instance in a
+ * {@code synchronized} block of the engine, as {@code jvm.threads.virtual.pinned} with an {@code engine} tag. A
+ * pinned virtual thread keeps its carrier from running other requests, so an engine that pins while it renders does
+ * not scale on virtual threads.
+ *
+ * Tomcat 9.0.17 holds the monitor of the socket while it processes a request, so every request that waits pins its
+ * carrier thread. Only the pinned parks with a frame of an engine, or of the view of this application that drives
+ * it, in their stack trace are counted, for the engine of the frame nearest to the park. The others, such as Tomcat
+ * waiting for the next request, are left out. Stack traces are cut off at 64 frames unless the JVM is started with
+ * {@code -XX:FlightRecorderOptions:stackdepth=}, a park deep in Tomcat may lose its engine frames.
+ *
+ * The events come from a Flight Recorder stream, which like virtual threads needs Java 21; the project is compiled
+ * for Java 8, so the stream and the stack traces are read by reflection. Every pinned park is counted, not only
+ * those over the default threshold of 20 ms.
+ */
+public class PinnedVirtualThreadsMeter implements MeterBinder, DisposableBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PinnedVirtualThreadsMeter.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final String VIEWS = "com.jeroenreijn.examples.view.";
+
+	/**
+	 * The class name prefixes of every engine. Rocker and Groovy compile their templates to classes in the default
+	 * package, JSP to {@code org.apache.jsp}.
+	 */
+	private static final Map<String, List<String>> ENGINE_CLASSES = new LinkedHashMap<>();
+
+	static {
+		ENGINE_CLASSES.put("jsp", Arrays.asList("org.apache.jasper.", "org.apache.jsp."));
+		ENGINE_CLASSES.put("freemarker", Collections.singletonList("freemarker."));
+		ENGINE_CLASSES.put("velocity", Collections.singletonList("org.apache.velocity."));
+		ENGINE_CLASSES.put("thymeleaf", Collections.singletonList("org.thymeleaf."));
+		ENGINE_CLASSES.put("mustache", Collections.singletonList("com.samskivert.mustache."));
+		ENGINE_CLASSES.put("jade", Collections.singletonList("de.neuland.jade4j."));
+		ENGINE_CLASSES.put("pebble", Collections.singletonList("com.mitchellbosecke.pebble."));
+		ENGINE_CLASSES.put("handlebars", Collections.singletonList("com.github.jknack.handlebars."));
+		ENGINE_CLASSES.put("jtwig", Collections.singletonList("org.jtwig."));
+		ENGINE_CLASSES.put("scalate", Collections.singletonList("org.fusesource.scalate."));
+		ENGINE_CLASSES.put("httl", Collections.singletonList("httl."));
+		ENGINE_CLASSES.put("chunk", Collections.singletonList("com.x5.template."));
+		ENGINE_CLASSES.put("htmlFlow", Arrays.asList("htmlflow.", "org.xmlet.", VIEWS + "HtmlFlow"));
+		ENGINE_CLASSES.put("trimou", Arrays.asList("org.trimou.", VIEWS + "Trimou"));
+		ENGINE_CLASSES.put("rocker", Arrays.asList("com.fizzed.rocker.", "index", "base", VIEWS + "Rocker"));
+		ENGINE_CLASSES.put("ickenham", Collections.singletonList("com.github.enpassant.ickenham."));
+		ENGINE_CLASSES.put("rythm", Collections.singletonList("org.rythmengine."));
+		ENGINE_CLASSES.put("groovy", Arrays.asList("groovy.text.markup.", "GeneratedMarkupTemplate"));
+		ENGINE_CLASSES.put("liqp", Arrays.asList("liqp.", VIEWS + "Liqp"));
+		ENGINE_CLASSES.put("kotlinx", Arrays.asList("kotlinx.html.", VIEWS + "KotlinxHtml"));
+	}
+
+	private final Map<String, LongAdder> pinned = new LinkedHashMap<>();
+	private AutoCloseable stream;
+
+	public PinnedVirtualThreadsMeter(final Collection<String> engines) {
+		for (String engine : engines) {
+			pinned.put(engine, new LongAdder());
+		}
+	}
+
+	@Override
+	public synchronized void bindTo(MeterRegistry registry) {
+		pinned.forEach((engine, count) ->
+				FunctionCounter.builder("jvm.threads.virtual.pinned", count, LongAdder::sum)
+						.description("Times a virtual thread blocked while pinned to its carrier thread in an engine")
+						.tag("engine", engine)
+						.register(registry));
+
+		if (stream == null) {
+			stream = start();
+		}
+	}
+
+	/**
+	 * The engine of the frame nearest to the top of the stack, given as the class names of its frames, or
+	 * {@code null} when no frame belongs to an engine.
+	 */
+	static String engine(List<String> frameClasses) {
+		for (String frameClass : frameClasses) {
+			for (Map.Entry<String, List<String>> engine : ENGINE_CLASSES.entrySet()) {
+				for (String prefix : engine.getValue()) {
+					if (frameClass.startsWith(prefix)) {
+						return engine.getKey();
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private void count(Object event) {
+		try {
+			LongAdder count = pinned.get(engine(frameClasses(event)));
+			if (count != null) {
+				count.increment();
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("Could not read the stack trace of a pinned virtual thread", e);
+		}
+	}
+
+	/**
+	 * The class names of the frames of a {@code jdk.jfr.consumer.RecordedEvent}, from the top of the stack down.
+	 */
+	private static List<String> frameClasses(Object event) throws ReflectiveOperationException {
+		Object stackTrace = event.getClass().getMethod("getStackTrace").invoke(event);
+		if (stackTrace == null) {
+			return Collections.emptyList();
+		}
+
+		List<?> frames = (List<?>) stackTrace.getClass().getMethod("getFrames").invoke(stackTrace);
+		List<String> classes = new ArrayList<>(frames.size());
+		for (Object frame : frames) {
+			Object method = frame.getClass().getMethod("getMethod").invoke(frame);
+			Object type = method.getClass().getMethod("getType").invoke(method);
+			classes.add((String) type.getClass().getMethod("getName").invoke(type));
+		}
+		return classes;
+	}
+
+	private AutoCloseable start() {
+		try {
+			Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+			Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+			AutoCloseable recordingStream = (AutoCloseable) streamClass.getConstructor().newInstance();
+
+			Object settings = streamClass.getMethod("enable", String.class).invoke(recordingStream, PINNED_EVENT);
+			settingsClass.getMethod("withThreshold", Duration.class).invoke(settings, Duration.ZERO);
+			settingsClass.getMethod("withStackTrace").invoke(settings);
+			Consumer<Object> counter = this::count;
+			streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(recordingStream, PINNED_EVENT,
+					counter);
+			streamClass.getMethod("startAsync").invoke(recordingStream);
+
+			return recordingStream;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.warn("Pinned virtual threads are not counted, Flight Recorder streaming is not available: {}",
+					e.toString());
+			return null;
+		}
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.jeroenreijn.examples.configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+
+/**
+ * Runs the requests of the embedded Tomcat on virtual threads instead of its bounded pool of platform threads, so
+ * a request that waits for the repository does not hold on to an operating system thread. Virtual threads need
+ * Java 21; on older versions Tomcat keeps its pool and a warning is logged. The project is compiled for Java 8, so
+ * the executor is looked up by reflection.
+ */
+public class VirtualThreadsCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadsCustomizer.class);
+
+	@Override
+	public void customize(TomcatServletWebServerFactory factory) {
+		ExecutorService executor = newVirtualThreadPerTaskExecutor();
+		if (executor == null) {
+			LOGGER.warn("Virtual threads need Java 21 or later, Tomcat keeps its platform threads on Java {}",
+					System.getProperty("java.specification.version"));
+			return;
+		}
+
+		factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(executor));
+		LOGGER.info("Tomcat handles requests on virtual threads");
+	}
+
+	/**
+	 * An executor that starts a virtual thread for every task, or {@code null} when the JDK has none.
+	 */
+	static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.jeroenreijn.examples.configuration;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 
@@ -9,6 +11,11 @@ import org.fusesource.scalate.spring.view.ScalateViewResolver;
 import org.rythmengine.spring.web.RythmConfigurer;
 import org.rythmengine.spring.web.RythmViewResolver;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.MessageSource;
@@ -19,6 +26,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
@@ -28,6 +36,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
+import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring5.view.ThymeleafViewResolver;
@@ -35,14 +44,23 @@ import org.thymeleaf.templatemode.TemplateMode;
 
 import com.github.enpassant.ickenham.springmvc.IckenhamViewResolver;
 import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import com.jeroenreijn.examples.controller.RenderedPageCacheFilter;
 import com.jeroenreijn.examples.repository.InMemoryPresentationsRepository;
+import com.jeroenreijn.examples.repository.LatencyPresentationsRepository;
+import com.jeroenreijn.examples.repository.PresentationsGenerator;
+import com.jeroenreijn.examples.repository.PresentationsLatency;
 import com.jeroenreijn.examples.repository.PresentationsRepository;
+import com.jeroenreijn.examples.services.MessagesService;
+import com.jeroenreijn.examples.services.PresentationsService;
 import com.x5.template.spring.ChunkTemplateView;
 
 import de.neuland.jade4j.JadeConfiguration;
 import de.neuland.jade4j.spring.template.SpringTemplateLoader;
 import de.neuland.jade4j.spring.view.JadeViewResolver;
+import freemarker.template.DefaultObjectWrapperBuilder;
+import httl.web.WebEngine;
 import httl.web.springmvc.HttlViewResolver;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebMvc
@@ -50,6 +68,59 @@ import httl.web.springmvc.HttlViewResolver;
 public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	private ApplicationContext applicationContext;
 
+	/**
+	 * Whether the engines may cache parsed and compiled templates. Disabled by default, enabled by the
+	 * {@code production} profile.
+	 */
+	@Value("${templates.cache:false}")
+	private boolean templatesCache;
+
+	@Value("${templates.streaming.htmlFlow:false}")
+	private boolean htmlFlowStreaming;
+
+	@Value("${templates.streaming.rocker:false}")
+	private boolean rockerStreaming;
+
+	@Value("${templates.streaming.kotlinx:false}")
+	private boolean kotlinxStreaming;
+
+	/**
+	 * Whether the pages are written without indentation and line breaks.
+	 */
+	@Value("${templates.minify.enabled:false}")
+	private boolean minify;
+
+	/**
+	 * Whether the repository escapes and encodes the text of the presentations once, when they are stored.
+	 */
+	@Value("${presentations.pre-encoded:false}")
+	private boolean presentationsPreEncoded;
+
+	/**
+	 * Whether the Trimou, Liqp, Rocker, HtmlFlow and kotlinx.html views render into pooled buffers, see
+	 * {@link RenderBuffers}. Off by default, so these engines are compared with the others as they are.
+	 */
+	@Value("${templates.render-buffers.enabled:false}")
+	private boolean renderBuffersEnabled;
+
+	@Value("${templates.render-buffers.max-pooled:16}")
+	private int renderBuffersMaxPooled;
+
+	@Value("${templates.page-cache.enabled:false}")
+	private boolean pageCacheEnabled;
+
+	@Value("${templates.page-cache.max-bytes:67108864}")
+	private long pageCacheMaxBytes;
+
+	@Value("${templates.warmup.enabled:false}")
+	private boolean warmupEnabled;
+
+	@Value("${templates.warmup.iterations:20}")
+	private int warmupIterations;
+
+	@Value("${templates.warmup.parallelism:4}")
+	private int warmupParallelism;
+
 	@Override
 	public void setApplicationContext(final ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -84,27 +155,171 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 		return slr;
 	}
 
+	@Bean
+	@ConfigurationProperties(prefix = "presentations.generator")
+	public PresentationsGenerator presentationsGenerator() {
+		return new PresentationsGenerator();
+	}
+
+	/**
+	 * The time every query of the repository takes, to stand in for a slow back-end. None by default.
+	 */
+	@Bean
+	@ConfigurationProperties(prefix = "presentations.latency")
+	public PresentationsLatency presentationsLatency() {
+		return new PresentationsLatency();
+	}
+
 	@Bean
 	public PresentationsRepository presentationsRepository() {
-		PresentationsRepository inMemory = new InMemoryPresentationsRepository();
+		PresentationsGenerator generator = presentationsGenerator();
+		PresentationsRepository inMemory;
+		if (generator.isEnabled()) {
+			inMemory = new InMemoryPresentationsRepository(generator.generate(), presentationsPreEncoded);
+		} else {
+			inMemory = new InMemoryPresentationsRepository(InMemoryPresentationsRepository.defaultPresentations(),
+					presentationsPreEncoded);
+		}
+
+		PresentationsLatency latency = presentationsLatency();
+		if (latency.isEnabled()) {
+			return new LatencyPresentationsRepository(inMemory, latency);
+		}
 
 		return inMemory;
 	}
 
 	@Bean
+	public RenderedPageCacheFilter renderedPageCacheFilter() {
+		RenderedPageCacheFilter filter = new RenderedPageCacheFilter(
+				applicationContext.getBean(PresentationsService.class), localeResolver());
+		filter.setEnabled(pageCacheEnabled);
+		filter.setMaxBytes(pageCacheMaxBytes);
+
+		return filter;
+	}
+
+	@Bean
+	public EngineWarmup engineWarmup() {
+		EngineWarmup warmup = new EngineWarmup();
+		warmup.setEnabled(warmupEnabled);
+		warmup.setIterations(warmupIterations);
+		warmup.setParallelism(warmupParallelism);
+
+		return warmup;
+	}
+
+	@Bean
+	public RenderBuffers renderBuffers() {
+		RenderBuffers renderBuffers = new RenderBuffers();
+		renderBuffers.setMaxPooled(renderBuffersMaxPooled);
+
+		return renderBuffers;
+	}
+
+	/**
+	 * Hands the requests of Tomcat to virtual threads, when the JDK has them.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "spring.threads.virtual.enabled")
+	public VirtualThreadsCustomizer virtualThreadsCustomizer() {
+		return new VirtualThreadsCustomizer();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "spring.threads.virtual.enabled")
+	public PinnedVirtualThreadsMeter pinnedVirtualThreadsMeter() {
+		return new PinnedVirtualThreadsMeter(Engines.enabled(applicationContext.getEnvironment()));
+	}
+
+	/**
+	 * Records the resolve and render times, bytes and errors of every engine, see the {@code prometheus} endpoint.
+	 * Off by default, so the benchmarks measure the engines alone; the {@code production} profile turns it on.
+	 * Static, so the view resolvers are wrapped without creating this configuration early.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "templates.metrics.enabled")
+	public static MeteredViewResolverPostProcessor meteredViewResolverPostProcessor(
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new MeteredViewResolverPostProcessor(meterRegistry);
+	}
+
+	/**
+	 * Collapses the whitespace written by the engines that cannot leave it out themselves. Jade4j, HtmlFlow and
+	 * kotlinx.html are configured to write no indentation, Groovy writes none by default.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "templates.minify.enabled")
+	public static MinifiedViewResolverPostProcessor minifiedViewResolverPostProcessor() {
+		return new MinifiedViewResolverPostProcessor(
+				new HashSet<>(Arrays.asList("jade", "htmlFlow", "kotlinxHtml", "groovyMarkup")));
+	}
+
+	/**
+	 * The only view resolver the {@link DispatcherServlet} asks, it hands the view name to the resolver of its
+	 * engine.
+	 */
+	@Bean(name = DispatcherServlet.VIEW_RESOLVER_BEAN_NAME)
+	@ConditionalOnProperty(name = "templates.view-dispatch.enabled", matchIfMissing = true)
+	public SuffixDispatchingViewResolver viewResolver() {
+		SuffixDispatchingViewResolver viewResolver = new SuffixDispatchingViewResolver();
+		viewResolver.setCacheUnresolved(templatesCache);
+
+		return viewResolver;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "templates.view-dispatch.enabled", matchIfMissing = true)
+	public static BeanPostProcessor viewResolverDetection() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof DispatcherServlet) {
+					((DispatcherServlet) bean).setDetectAllViewResolvers(false);
+				}
+				return bean;
+			}
+		};
+	}
+
+	/**
+	 * With lazy fetching, FreeMarker wraps collections in adapters instead of copying them, so {@code #list} iterates
+	 * the presentations while the page is written. Other runs keep the default wrapper.
+	 */
+	@Bean
+	@ConditionalOnEngine("freemarker")
+	@ConditionalOnProperty(name = "presentations.fetch.lazy")
+	public static BeanPostProcessor freeMarkerCollectionAdapters() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof FreeMarkerConfigurer) {
+					DefaultObjectWrapperBuilder builder = new DefaultObjectWrapperBuilder(
+							freemarker.template.Configuration.VERSION_2_3_28);
+					builder.setForceLegacyNonListCollections(false);
+					((FreeMarkerConfigurer) bean).getConfiguration().setObjectWrapper(builder.build());
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	@ConditionalOnEngine("thymeleaf")
 	public SpringResourceTemplateResolver thymeleafTemplateResolver() {
 		SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
 		templateResolver.setApplicationContext(this.applicationContext);
 		templateResolver.setPrefix("/WEB-INF/thymeleaf/");
 		templateResolver.setSuffix(".html");
 		templateResolver.setTemplateMode(TemplateMode.HTML);
-		templateResolver.setCacheable(false);
+		templateResolver.setCacheable(templatesCache);
 		templateResolver.setCharacterEncoding("UTF-8");
 
 		return templateResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("thymeleaf")
 	public SpringTemplateEngine thymeleafTemplateEngine() {
 		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
 		templateEngine.setTemplateResolver(thymeleafTemplateResolver());
@@ -113,33 +328,36 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	}
 
 	@Bean
+	@ConditionalOnEngine("thymeleaf")
 	public ViewResolver thymeleafViewResolver() {
 		ThymeleafViewResolver viewResolver = new ThymeleafViewResolver();
 		viewResolver.setViewNames(new String[] { "*-thymeleaf" });
 		viewResolver.setTemplateEngine(thymeleafTemplateEngine());
 		viewResolver.setCharacterEncoding("UTF-8");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("handlebars")
 	public ViewResolver handlebarsViewResolver() {
 		HandlebarsViewResolver viewResolver = new HandlebarsViewResolver();
 		viewResolver.setViewNames("*-handlebars");
 		viewResolver.setPrefix("/WEB-INF/handlebars/");
 		viewResolver.setSuffix(".hbs");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 
 		return viewResolver;
 	}
 
 	@Bean(name = "chunkTemplatesConfig")
 	@Scope("prototype")
+	@ConditionalOnEngine("chunk")
 	public Map<String, String> chunkTemplatesConfig() {
 		Map<String, String> config = new HashMap<>();
 		config.put("default_extension", "chtml");
-		config.put("cache_minutes", "0");
+		config.put("cache_minutes", templatesCache ? "1440" : "0");
 		config.put("layers", "");
 		config.put("theme_path", "");
 		config.put("hide_errors", "FALSE");
@@ -152,13 +370,14 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	}
 
 	@Bean
+	@ConditionalOnEngine("chunk")
 	public ViewResolver chunkViewResolver() {
 		InternalResourceViewResolver viewResolver = new InternalResourceViewResolver();
 		viewResolver.setViewClass(ChunkTemplateView.class);
 		viewResolver.setPrefix("/WEB-INF/chunk/");
 		viewResolver.setViewNames("*-chunk");
 		viewResolver.setSuffix(".chtml");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setRequestContextAttribute("rc");
 		viewResolver.setContentType("text/html;charset=UTF-8");
 
@@ -166,29 +385,37 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	}
 
 	@Bean
+	@ConditionalOnEngine("jsp")
 	public ViewResolver jspViewResolver() {
 		InternalResourceViewResolver viewResolver = new InternalResourceViewResolver();
 		viewResolver.setViewClass(JstlView.class);
 		viewResolver.setPrefix("/WEB-INF/jsp/");
 		viewResolver.setViewNames("*-jsp");
 		viewResolver.setSuffix(".jsp");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setRequestContextAttribute("rc");
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("httl")
 	public ViewResolver httlViewResolver() {
+		// HTTL creates a single static engine when the resolver is initialized, so configure it up front
+		WebEngine.setProperty("reloadable", String.valueOf(!templatesCache));
+		WebEngine.setProperty("cache.capacity", templatesCache ? "1000" : "0");
+		WebEngine.setProperty("template.cache.capacity", templatesCache ? "1000" : "0");
+
 		HttlViewResolver viewResolver = new HttlViewResolver();
 		viewResolver.setContentType("text/html;charset=UTF-8");
 		viewResolver.setViewNames("*-httl");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("jade")
 	public SpringTemplateLoader jade4jTemplateLoader() {
 		SpringTemplateLoader templateLoader = new SpringTemplateLoader();
 		templateLoader.setEncoding("UTF-8");
@@ -197,88 +424,117 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	}
 
 	@Bean
+	@ConditionalOnEngine("jade")
 	public JadeConfiguration jadeConfiguration() {
 		JadeConfiguration config = new JadeConfiguration();
-		config.setPrettyPrint(true);
-		config.setCaching(false);
+		config.setPrettyPrint(!minify);
+		config.setCaching(templatesCache);
 		config.setTemplateLoader(applicationContext.getBean(SpringTemplateLoader.class));
 
 		return config;
 	}
 
 	@Bean
+	@ConditionalOnEngine("jade")
 	public ViewResolver jadeViewResolver() {
 		JadeViewResolver viewResolver = new JadeViewResolver();
 		viewResolver.setPrefix("/WEB-INF/jade/");
 		viewResolver.setSuffix(".jade");
 		viewResolver.setViewNames("*-jade");
 		viewResolver.setRenderExceptions(true);
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setConfiguration(applicationContext.getBean(JadeConfiguration.class));
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("scalate")
 	public ViewResolver scalateViewResolver() {
 		ScalateViewResolver viewResolver = new ScalateViewResolver();
 		viewResolver.setPrefix("/WEB-INF/scalate/");
 		viewResolver.setSuffix(".scaml");
 		viewResolver.setViewNames("*-scalate");
 		viewResolver.setRequestContextAttribute("rc");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setContentType("text/html;charset=UTF-8");
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("htmlFlow")
 	public ViewResolver htmlFlowViewResolver() {
 		HtmlFlowViewResolver viewResolver = new HtmlFlowViewResolver();
 		viewResolver.setViewNames("*-htmlFlow");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
+		viewResolver.setStreaming(htmlFlowStreaming);
+		viewResolver.setMinified(minify);
+		if (renderBuffersEnabled) {
+			viewResolver.setRenderBuffers(renderBuffers());
+		}
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("trimou")
 	public ViewResolver trimouViewResolver() {
-		MessageSource messageSource = applicationContext.getBean(MessageSource.class);
-		TrimouViewResolver viewResolver = new TrimouViewResolver(messageSource);
+		MessagesService messagesService = applicationContext.getBean(MessagesService.class);
+		TrimouViewResolver viewResolver = new TrimouViewResolver(messagesService);
 		viewResolver.setPrefix("classpath:/templates/trimou/");
 		viewResolver.setSuffix(".trimou");
 		viewResolver.setViewNames("*-trimou");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
+		if (renderBuffersEnabled) {
+			viewResolver.setRenderBuffers(renderBuffers());
+		}
 
 		return viewResolver;
 	}
 
 	@Bean
-	public ViewResolver rockerViewResolver() {
+	@ConditionalOnEngine("rocker")
+	public RockerViewResolver rockerViewResolver() {
 		RockerViewResolver viewResolver = new RockerViewResolver();
 		viewResolver.setViewNames("*-rocker");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
+		viewResolver.setStreaming(rockerStreaming);
+		if (renderBuffersEnabled) {
+			viewResolver.setRenderBuffers(renderBuffers());
+		}
 
 		return viewResolver;
 	}
 
+	/**
+	 * Exports the static and dynamic bytes written by the Rocker views, see {@link RockerOutputStatistics}.
+	 */
+	@Bean
+	@ConditionalOnEngine("rocker")
+	public RockerOutputStatistics rockerOutputStatistics() {
+		return rockerViewResolver().getOutputStatistics();
+	}
+
 	@Bean
+	@ConditionalOnEngine("ickenham")
 	public ViewResolver ickenhamViewResolver() {
 		IckenhamViewResolver viewResolver = new IckenhamViewResolver();
 		viewResolver.setPrefix("/WEB-INF/ickenham/");
 		viewResolver.setSuffix(".hbs");
 		viewResolver.setViewNames("*-ickenham");
 		viewResolver.setRequestContextAttribute("rc");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setContentType("text/html;charset=UTF-8");
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("rythm")
 	public RythmConfigurer rythmConfigurer() {
 		RythmConfigurer conf = new RythmConfigurer();
-		conf.setDevMode(true);
+		conf.setDevMode(!templatesCache);
 		conf.setResourceLoaderPath("/WEB-INF/rythm/");
 		conf.setAutoImports("com.jeroenreijn.examples.model.*");
 
@@ -286,35 +542,46 @@ public class WebMvcConfig implements ApplicationContextAware, WebMvcConfigurer {
 	}
 
 	@Bean
+	@ConditionalOnEngine("rythm")
 	public ViewResolver rythmViewResolver() {
 		RythmViewResolver viewResolver = new RythmViewResolver();
 		viewResolver.setPrefix("/WEB-INF/rythm/");
 		viewResolver.setSuffix(".html");
 		viewResolver.setViewNames("*-rythm");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setContentType("text/html;charset=UTF-8");
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("liqp")
 	public LiqpViewResolver liqpViewResolver() {
-		LiqpViewResolver viewResolver = new LiqpViewResolver(applicationContext.getBean(MessageSource.class));
+		LiqpViewResolver viewResolver = new LiqpViewResolver();
 		viewResolver.setViewClass(LiqpView.class);
 		viewResolver.setPrefix("classpath:./templates/liqp/");
 		viewResolver.setSuffix(".liqp");
 		viewResolver.setViewNames("*-liqp");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
 		viewResolver.setContentType("text/html;charset=UTF-8");
+		if (renderBuffersEnabled) {
+			viewResolver.setRenderBuffers(renderBuffers());
+		}
 
 		return viewResolver;
 	}
 
 	@Bean
+	@ConditionalOnEngine("kotlinx")
 	public ViewResolver kotlinxHtmlViewResolver() {
 		KotlinxHtmlViewResolver viewResolver = new KotlinxHtmlViewResolver();
 		viewResolver.setViewNames("*-kotlinx");
-		viewResolver.setCache(false);
+		viewResolver.setCache(templatesCache);
+		viewResolver.setStreaming(kotlinxStreaming);
+		viewResolver.setMinified(minify);
+		if (renderBuffersEnabled) {
+			viewResolver.setRenderBuffers(renderBuffers());
+		}
 
 		return viewResolver;
 	}
@@ -1,28 +1,36 @@
 package com.jeroenreijn.examples.controller;
 
+import java.util.Locale;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.LocaleResolver;
 
-import com.jeroenreijn.examples.model.i18nLayout;
+import com.jeroenreijn.examples.model.PageFragments;
+import com.jeroenreijn.examples.services.MessagesService;
+import com.jeroenreijn.examples.services.PageFragmentsService;
 import com.jeroenreijn.examples.services.PresentationsService;
 
 @Controller
 @RequestMapping("/")
 public class PresentationsController {
+	private static final int MAX_PAGE_SIZE = 1000;
 
 	@Autowired
 	PresentationsService presentationsService;
 
 	@Autowired
-	MessageSource messageSource;
+	MessagesService messagesService;
+
+	@Autowired
+	PageFragmentsService pageFragmentsService;
 
 	@Autowired
 	LocaleResolver localeResolver;
@@ -32,11 +40,37 @@ public class PresentationsController {
 		return showList(request, "jsp", modelMap);
 	}
 
+	public String showList(HttpServletRequest request, final String template, final ModelMap model) {
+		return showList(request, template, null, null, null, model);
+	}
+
+	/**
+	 * Lists all presentations, or one slice of them when a page size is given: either the page with the given
+	 * number, or the presentations following the given id.
+	 */
 	@RequestMapping(value = "/{template}", method = RequestMethod.GET)
 	public String showList(HttpServletRequest request, @PathVariable(value = "template") final String template,
-			final ModelMap model) {
-		model.addAttribute("presentations", presentationsService.findAll());
-		model.addAttribute("i18n", new i18nLayout(request, messageSource, localeResolver));
+			@RequestParam(value = "page", required = false) final Integer page,
+			@RequestParam(value = "size", required = false) final Integer size,
+			@RequestParam(value = "after", required = false) final Long after, final ModelMap model) {
+		if (size == null) {
+			model.addAttribute("presentations", presentationsService.findAll());
+		} else {
+			int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+			if (after != null) {
+				model.addAttribute("presentations", presentationsService.findAfter(after, pageSize));
+			} else {
+				model.addAttribute("presentations",
+						presentationsService.findPage(page == null ? 0 : Math.max(page, 0), pageSize));
+			}
+		}
+		Locale locale = localeResolver.resolveLocale(request);
+		model.addAttribute("i18n", messagesService.forLocale(locale));
+
+		PageFragments fragments = pageFragmentsService.forPage(template, locale);
+		if (fragments != null) {
+			model.addAttribute("fragments", fragments);
+		}
 
 		return "index-" + template;
 	}
@@ -0,0 +1,229 @@
+package com.jeroenreijn.examples.controller;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.jeroenreijn.examples.services.PresentationsService;
+
+/**
+ * Keeps the rendered listing pages per template, query string, locale and repository version, and answers repeated
+ * requests with the stored bytes. Every stored page gets a strong ETag, so clients that send it back in
+ * {@code If-None-Match} get a 304 without a body. Requests with {@code Cache-Control: no-cache} are
+ * rendered again. Pages of an older repository version are dropped as soon as a newer version is stored; when
+ * the pages take more than the configured number of bytes, the least recently used ones are evicted.
+ *
+ * Disabled by default, the filter then passes every request on unchanged.
+ */
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+	private final PresentationsService presentationsService;
+	private final LocaleResolver localeResolver;
+
+	private final LinkedHashMap<PageKey, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+	private long storedBytes;
+	private long storedVersion;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private boolean enabled = false;
+	private long maxBytes = 64 * 1024 * 1024;
+
+	public RenderedPageCacheFilter(PresentationsService presentationsService, LocaleResolver localeResolver) {
+		this.presentationsService = presentationsService;
+		this.localeResolver = localeResolver;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (!enabled || !"GET".equals(request.getMethod())) {
+			return true;
+		}
+		// Only the listing pages: "/" and "/{template}", not the static resources
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return path.indexOf('/', 1) >= 0 || path.indexOf('.') >= 0;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (request.getQueryString() != null) {
+			path = path + "?" + request.getQueryString();
+		}
+		PageKey key = new PageKey(path, localeResolver.resolveLocale(request), presentationsService.getVersion());
+
+		// A client asking for a fresh page gets one, which then replaces the stored page
+		Page page = noCache(request) ? null : get(key);
+		if (page != null) {
+			hits.increment();
+			write(page, request, response);
+			return;
+		}
+		misses.increment();
+
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		filterChain.doFilter(request, wrapper);
+
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentSize() > 0) {
+			page = new Page(wrapper.getContentAsByteArray(), wrapper.getContentType());
+			put(key, page);
+			wrapper.setHeader(HttpHeaders.ETAG, page.etag);
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private void write(Page page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setHeader(HttpHeaders.ETAG, page.etag);
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), page.etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		response.setContentType(page.contentType);
+		response.setContentLength(page.body.length);
+		response.getOutputStream().write(page.body);
+	}
+
+	private static boolean noCache(HttpServletRequest request) {
+		String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+		return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (!StringUtils.hasText(ifNoneMatch)) {
+			return false;
+		}
+		for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+			candidate = candidate.trim();
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+			if ("*".equals(candidate) || etag.equals(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private synchronized Page get(PageKey key) {
+		return pages.get(key);
+	}
+
+	private synchronized void put(PageKey key, Page page) {
+		if (key.version < storedVersion) {
+			return;
+		}
+		if (key.version > storedVersion) {
+			evictions.add(pages.size());
+			pages.clear();
+			storedBytes = 0;
+			storedVersion = key.version;
+		}
+		if (page.body.length > maxBytes) {
+			return;
+		}
+
+		Page previous = pages.put(key, page);
+		storedBytes += page.body.length - (previous == null ? 0 : previous.body.length);
+
+		Iterator<Page> leastRecentlyUsed = pages.values().iterator();
+		while (storedBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+			storedBytes -= leastRecentlyUsed.next().body.length;
+			leastRecentlyUsed.remove();
+			evictions.increment();
+		}
+	}
+
+	public synchronized void clear() {
+		pages.clear();
+		storedBytes = 0;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public void setMaxBytes(final long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public synchronized long getStoredBytes() {
+		return storedBytes;
+	}
+
+	private static class PageKey {
+		private final String path;
+		private final Locale locale;
+		private final long version;
+
+		PageKey(String path, Locale locale, long version) {
+			this.path = path;
+			this.locale = locale;
+			this.version = version;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof PageKey)) {
+				return false;
+			}
+			PageKey other = (PageKey) o;
+			return version == other.version && path.equals(other.path) && Objects.equals(locale, other.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(path, locale, version);
+		}
+	}
+
+	private static class Page {
+		private final byte[] body;
+		private final String contentType;
+		private final String etag;
+
+		Page(byte[] body, String contentType) {
+			this.body = body;
+			this.contentType = contentType;
+			this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.jeroenreijn.examples.model;
+
+import java.util.Date;
+
+/**
+ * An immutable presentation that escapes and encodes its title, speaker name and summary once, when it is created.
+ */
+public class EncodedPresentation extends Presentation {
+	private final EncodedText titleText;
+	private final EncodedText speakerNameText;
+	private final EncodedText summaryText;
+
+	public EncodedPresentation(Presentation presentation) {
+		super.setId(presentation.getId());
+		super.setTitle(presentation.getTitle());
+		super.setSpeakerName(presentation.getSpeakerName());
+		super.setSummary(presentation.getSummary());
+		super.setRoom(presentation.getRoom());
+		super.setStartTime(presentation.getStartTime());
+		super.setEndTime(presentation.getEndTime());
+
+		this.titleText = EncodedText.encode(presentation.getTitle());
+		this.speakerNameText = EncodedText.encode(presentation.getSpeakerName());
+		this.summaryText = EncodedText.encode(presentation.getSummary());
+	}
+
+	@Override
+	public EncodedText getTitleText() {
+		return titleText;
+	}
+
+	@Override
+	public EncodedText getSpeakerNameText() {
+		return speakerNameText;
+	}
+
+	@Override
+	public EncodedText getSummaryText() {
+		return summaryText;
+	}
+
+	@Override
+	public void setId(final Long id) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setTitle(final String title) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setSpeakerName(final String speakerName) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setSummary(final String summary) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setRoom(final String room) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setStartTime(final Date startTime) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+
+	@Override
+	public void setEndTime(final Date endTime) {
+		throw new UnsupportedOperationException("EncodedPresentation is immutable");
+	}
+}
@@ -0,0 +1,84 @@
+package com.jeroenreijn.examples.model;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * A text together with its HTML escaped form and the UTF-8 bytes of both, so templates can write a text without
+ * escaping or encoding it again. The byte arrays are shared and must not be modified.
+ *
+ * {@link #encode(String)} computes every form up front, for texts that are written many times. {@link #of(String)}
+ * computes a form when it is first asked for, so a text that is written once costs what escaping and encoding it in
+ * the template would; such an instance is not meant to be shared between threads.
+ */
+public final class EncodedText {
+	public static final EncodedText EMPTY = new EncodedText("").computeAll();
+
+	private final String text;
+	private String html;
+	private byte[] utf8;
+	private byte[] htmlUtf8;
+
+	private EncodedText(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * The text with its forms computed when they are first used.
+	 */
+	public static EncodedText of(String text) {
+		return text == null || text.isEmpty() ? EMPTY : new EncodedText(text);
+	}
+
+	/**
+	 * The text with all its forms computed now.
+	 */
+	public static EncodedText encode(String text) {
+		return text == null || text.isEmpty() ? EMPTY : new EncodedText(text).computeAll();
+	}
+
+	private EncodedText computeAll() {
+		getHtmlUtf8();
+		getUtf8();
+		return this;
+	}
+
+	/**
+	 * Whether every form has been computed, so the text can be shared between threads.
+	 */
+	boolean isEncoded() {
+		return html != null && utf8 != null && htmlUtf8 != null;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public String getHtml() {
+		if (html == null) {
+			html = HtmlUtils.htmlEscape(text, "UTF-8");
+		}
+		return html;
+	}
+
+	public byte[] getUtf8() {
+		if (utf8 == null) {
+			utf8 = text.getBytes(StandardCharsets.UTF_8);
+		}
+		return utf8;
+	}
+
+	public byte[] getHtmlUtf8() {
+		if (htmlUtf8 == null) {
+			String escaped = getHtml();
+			htmlUtf8 = escaped.equals(text) ? getUtf8() : escaped.getBytes(StandardCharsets.UTF_8);
+		}
+		return htmlUtf8;
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+}
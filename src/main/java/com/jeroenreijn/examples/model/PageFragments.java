@@ -0,0 +1,38 @@
+package com.jeroenreijn.examples.model;
+
+/**
+ * The head and the scripts of a page, rendered and encoded for one engine and locale at startup and shared by every
+ * request. Templates write them as they are instead of rendering their own partials, see
+ * {@link com.jeroenreijn.examples.services.PageFragmentsService}.
+ */
+public final class PageFragments {
+	private final EncodedText head;
+	private final EncodedText scripts;
+
+	public PageFragments(String head, String scripts) {
+		this.head = EncodedText.encode(head);
+		this.scripts = EncodedText.encode(scripts);
+	}
+
+	/**
+	 * The elements inside {@code <head>}: meta tags, title and stylesheet.
+	 */
+	public String getHead() {
+		return head.getText();
+	}
+
+	/**
+	 * The script elements at the end of {@code <body>}.
+	 */
+	public String getScripts() {
+		return scripts.getText();
+	}
+
+	public EncodedText getHeadText() {
+		return head;
+	}
+
+	public EncodedText getScriptsText() {
+		return scripts;
+	}
+}
@@ -74,4 +74,20 @@ public class Presentation {
 	public void setEndTime(final Date endTime) {
 		this.endTime = endTime;
 	}
+
+	/**
+	 * The title with its escaped and encoded forms. Here only the form a template asks for is computed, on every
+	 * render, as the template would escape or encode the title itself; {@link EncodedPresentation} keeps them.
+	 */
+	public EncodedText getTitleText() {
+		return EncodedText.of(title);
+	}
+
+	public EncodedText getSpeakerNameText() {
+		return EncodedText.of(speakerName);
+	}
+
+	public EncodedText getSummaryText() {
+		return EncodedText.of(summary);
+	}
 }
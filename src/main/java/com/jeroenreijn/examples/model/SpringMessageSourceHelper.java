@@ -8,7 +8,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
 import org.trimou.handlebars.Options;
 import org.trimou.handlebars.i18n.LocaleAwareValueHelper;
@@ -16,12 +15,14 @@ import org.trimou.util.Arrays;
 import org.trimou.util.ImmutableSet;
 import org.trimou.util.Strings;
 
+import com.jeroenreijn.examples.services.MessagesService;
+
 public class SpringMessageSourceHelper extends LocaleAwareValueHelper {
 	private static final String DEFAULT_MESSAGE = "defaultMessage";
-	private final MessageSource messageSource;
+	private final MessagesService messagesService;
 
-	public SpringMessageSourceHelper(final MessageSource messageSource) {
-		this.messageSource = Objects.requireNonNull(messageSource, "messageSource must not be null");
+	public SpringMessageSourceHelper(final MessagesService messagesService) {
+		this.messagesService = Objects.requireNonNull(messagesService, "messagesService must not be null");
 	}
 
 	@Override
@@ -31,13 +32,9 @@ public class SpringMessageSourceHelper extends LocaleAwareValueHelper {
 		final Locale locale = getLocale(options);
 		final Object[] msgArguments = getMessageArguments(options.getParameters());
 		try {
-			if (Strings.isEmpty(defaultMessage)) {
-				append(options, messageSource.getMessage(msgCode, msgArguments, locale));
-			} else {
-				append(options, messageSource.getMessage(msgCode, msgArguments, defaultMessage, locale));
-			}
+			append(options, messagesService.forLocale(locale).format(msgCode, msgArguments));
 		} catch (NoSuchMessageException e) {
-			append(options, msgCode);
+			append(options, Strings.isEmpty(defaultMessage) ? msgCode : defaultMessage);
 		}
 	}
 
@@ -2,37 +2,60 @@ package com.jeroenreijn.examples.model;
 
 import java.io.IOException;
 import java.io.Writer;
-
-import javax.servlet.http.HttpServletRequest;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 import org.springframework.context.MessageSource;
-import org.springframework.web.servlet.LocaleResolver;
 
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Template.Fragment;
 
+/**
+ * The messages of one locale. Instances are immutable and shared by all requests for that locale, see
+ * {@link com.jeroenreijn.examples.services.MessagesService}.
+ */
 public class i18nLayout implements Mustache.Lambda {
-	private HttpServletRequest request;
-	private MessageSource messageSource;
-	private LocaleResolver localeResolver;
+	private final Locale locale;
+	private final Map<String, String> messages;
+	private final MessageSource messageSource;
 
-	public i18nLayout(HttpServletRequest request, MessageSource messageSource, LocaleResolver localeResolver) {
-		this.request = request;
+	public i18nLayout(Locale locale, Map<String, String> messages, MessageSource messageSource) {
+		this.locale = locale;
+		this.messages = Collections.unmodifiableMap(new HashMap<>(messages));
 		this.messageSource = messageSource;
-		this.localeResolver = localeResolver;
+	}
+
+	public Locale getLocale() {
+		return locale;
 	}
 
 	public String message(String key) {
-		String text = messageSource.getMessage(key, null, localeResolver.resolveLocale(request));
+		String text = messages.get(key);
+		if (text == null) {
+			// Not in messages.properties, the message source knows whether it exists at all
+			text = messageSource.getMessage(key, null, locale);
+		}
 
 		return text;
 	}
 
+	/**
+	 * Formats the message with the given arguments, like {@link MessageSource#getMessage(String, Object[], Locale)}.
+	 */
+	public String format(String key, Object... args) {
+		String text = message(key);
+		if (args.length == 0 || (text.indexOf('{') < 0 && text.indexOf('\'') < 0)) {
+			return text;
+		}
+
+		return new MessageFormat(text, locale).format(args);
+	}
+
 	@Override
 	public void execute(Fragment frag, Writer out) throws IOException {
-		String key = frag.execute();
-		String text = messageSource.getMessage(key, null, localeResolver.resolveLocale(request));
-
-		out.write(text);
+		out.write(message(frag.execute()));
 	}
-}
\ No newline at end of file
+}
@@ -1,19 +1,63 @@
 package com.jeroenreijn.examples.repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+import com.jeroenreijn.examples.model.EncodedPresentation;
 import com.jeroenreijn.examples.model.Presentation;
 
+/**
+ * Keeps the presentations in an immutable snapshot with its indices. Readers work on whatever snapshot was
+ * published last and never wait; writers copy the snapshot, apply their change and publish the copy. Writes are
+ * therefore O(n log n) and serialized, which suits a repository that is read far more often than it is changed.
+ *
+ * The returned presentations are shared by all readers and must not be modified; save a copy instead. With
+ * pre-encoding enabled the repository stores {@link EncodedPresentation}s, which escape and encode their text once
+ * and refuse to be modified.
+ */
 public class InMemoryPresentationsRepository implements PresentationsRepository {
 
 	private static AtomicLong counter = new AtomicLong();
-	private ConcurrentMap<Long, Presentation> presentations = new ConcurrentHashMap<>();
+
+	private static final Comparator<Presentation> BY_ID = Comparator.comparing(Presentation::getId);
+	private static final Comparator<Presentation> BY_START_TIME = Comparator
+			.comparing(Presentation::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+			.thenComparing(BY_ID);
+
+	private final boolean preEncoded;
+	private volatile Snapshot snapshot;
 
 	public InMemoryPresentationsRepository() {
+		this(defaultPresentations());
+	}
+
+	public InMemoryPresentationsRepository(Iterable<Presentation> presentations) {
+		this(presentations, false);
+	}
+
+	public InMemoryPresentationsRepository(Iterable<Presentation> presentations, boolean preEncoded) {
+		this.preEncoded = preEncoded;
+
+		Map<Long, Presentation> byId = new HashMap<>();
+		for (Presentation presentation : presentations) {
+			byId.put(presentation.getId(), preEncoded ? new EncodedPresentation(presentation) : presentation);
+		}
+		this.snapshot = new Snapshot(byId, 0);
+	}
 
+	/**
+	 * The ten presentations of JFall 2013 the application shows by default.
+	 */
+	public static List<Presentation> defaultPresentations() {
 		Presentation preso1 = new Presentation();
 		preso1.setId(counter.incrementAndGet());
 		preso1.setTitle("Shootout! Template engines on the JVM");
@@ -83,26 +127,196 @@ public class InMemoryPresentationsRepository implements PresentationsRepository
 		preso10.setSummary(
 				"Understanding data is increasingly important to create cutting-edge applications. A whole new data science field is emerging, with the open source R language as a leading technology. This statistical programming language is specifically designed for analyzing and understanding data.<br/><br/>In this session we approach R from the perspective of Java developers. How do you get up to speed quickly, what are the pitfalls to look out for?  Also we discuss how to bridge the divide between the R language and the JVM. After this session you can use your new skills to explore an exciting world of data analytics and machine learning! ");
 
-		presentations.put(preso1.getId(), preso1);
-		presentations.put(preso2.getId(), preso2);
-		presentations.put(preso3.getId(), preso3);
-		presentations.put(preso4.getId(), preso4);
-		presentations.put(preso5.getId(), preso5);
-		presentations.put(preso6.getId(), preso6);
-		presentations.put(preso7.getId(), preso7);
-		presentations.put(preso8.getId(), preso8);
-		presentations.put(preso9.getId(), preso9);
-		presentations.put(preso10.getId(), preso10);
+		List<Presentation> presentations = new ArrayList<>();
+		presentations.add(preso1);
+		presentations.add(preso2);
+		presentations.add(preso3);
+		presentations.add(preso4);
+		presentations.add(preso5);
+		presentations.add(preso6);
+		presentations.add(preso7);
+		presentations.add(preso8);
+		presentations.add(preso9);
+		presentations.add(preso10);
+
+		return presentations;
 	}
 
 	@Override
 	public Iterable<Presentation> findAll() {
-		return this.presentations.values();
+		return this.snapshot.all;
+	}
+
+	@Override
+	public int count() {
+		return this.snapshot.all.size();
+	}
+
+	@Override
+	public List<Presentation> findAll(int offset, int limit) {
+		return slice(this.snapshot.all, offset, limit);
+	}
+
+	@Override
+	public List<Presentation> findAllAfter(Long afterId, int limit) {
+		List<Presentation> all = this.snapshot.all;
+		int low = 0;
+		int high = all.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (all.get(middle).getId() <= afterId) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return slice(all, low, limit);
 	}
 
 	@Override
 	public Optional<Presentation> findById(Long id) {
-		return Optional.of(this.presentations.get(id));
+		return Optional.ofNullable(this.snapshot.byId.get(id));
+	}
+
+	@Override
+	public List<Presentation> findAllOrderByStartTime() {
+		return this.snapshot.byStartTime;
+	}
+
+	@Override
+	public List<Presentation> findByStartTimeBetween(Date from, Date to) {
+		List<Presentation> byStartTime = this.snapshot.byStartTime;
+		int fromIndex = firstStartingAtOrAfter(byStartTime, from);
+		int toIndex = Math.max(fromIndex, firstStartingAtOrAfter(byStartTime, to));
+
+		return byStartTime.subList(fromIndex, toIndex);
+	}
+
+	@Override
+	public List<Presentation> findByRoom(String room) {
+		return this.snapshot.byRoom.getOrDefault(room, Collections.emptyList());
+	}
+
+	@Override
+	public List<Presentation> findBySpeakerName(String speakerName) {
+		return this.snapshot.bySpeakerName.getOrDefault(speakerName, Collections.emptyList());
+	}
+
+	@Override
+	public synchronized Presentation save(Presentation presentation) {
+		Snapshot current = this.snapshot;
+		Presentation stored = copy(presentation);
+		if (stored.getId() == null) {
+			stored.setId(current.maxId + 1);
+		}
+		if (preEncoded) {
+			stored = new EncodedPresentation(stored);
+		}
+
+		Map<Long, Presentation> byId = new HashMap<>(current.byId);
+		byId.put(stored.getId(), stored);
+		this.snapshot = new Snapshot(byId, current.version + 1);
+
+		return stored;
+	}
+
+	@Override
+	public synchronized boolean delete(Long id) {
+		Snapshot current = this.snapshot;
+		if (!current.byId.containsKey(id)) {
+			return false;
+		}
+
+		Map<Long, Presentation> byId = new HashMap<>(current.byId);
+		byId.remove(id);
+		this.snapshot = new Snapshot(byId, current.version + 1);
+
+		return true;
+	}
+
+	@Override
+	public long getVersion() {
+		return this.snapshot.version;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Binary search for the first presentation starting at or after the given time; presentations without a start
+	 * time sort last, so they are never part of a range.
+	 */
+	private static int firstStartingAtOrAfter(List<Presentation> byStartTime, Date time) {
+		int low = 0;
+		int high = byStartTime.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			Date startTime = byStartTime.get(middle).getStartTime();
+			if (startTime != null && startTime.before(time)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static List<Presentation> slice(List<Presentation> presentations, int offset, int limit) {
+		int fromIndex = Math.min(Math.max(offset, 0), presentations.size());
+		int toIndex = (int) Math.min((long) fromIndex + Math.max(limit, 0), presentations.size());
+
+		return presentations.subList(fromIndex, toIndex);
+	}
+
+	private static Presentation copy(Presentation presentation) {
+		Presentation copy = new Presentation();
+		copy.setId(presentation.getId());
+		copy.setTitle(presentation.getTitle());
+		copy.setSpeakerName(presentation.getSpeakerName());
+		copy.setSummary(presentation.getSummary());
+		copy.setRoom(presentation.getRoom());
+		copy.setStartTime(presentation.getStartTime());
+		copy.setEndTime(presentation.getEndTime());
+
+		return copy;
+	}
+
+	private static class Snapshot {
+		private final long version;
+		private final long maxId;
+		private final Map<Long, Presentation> byId;
+		private final List<Presentation> all;
+		private final List<Presentation> byStartTime;
+		private final Map<String, List<Presentation>> byRoom;
+		private final Map<String, List<Presentation>> bySpeakerName;
+
+		Snapshot(Map<Long, Presentation> byId, long version) {
+			this.version = version;
+			this.byId = Collections.unmodifiableMap(byId);
+
+			Presentation[] sorted = byId.values().toArray(new Presentation[0]);
+			Arrays.sort(sorted, BY_ID);
+			this.all = Collections.unmodifiableList(Arrays.asList(sorted));
+			this.maxId = sorted.length == 0 ? 0 : sorted[sorted.length - 1].getId();
+
+			Presentation[] byStartTime = sorted.clone();
+			Arrays.sort(byStartTime, BY_START_TIME);
+			this.byStartTime = Collections.unmodifiableList(Arrays.asList(byStartTime));
+
+			this.byRoom = index(sorted, Presentation::getRoom);
+			this.bySpeakerName = index(sorted, Presentation::getSpeakerName);
+		}
+
+		private static Map<String, List<Presentation>> index(Presentation[] presentations,
+				Function<Presentation, String> property) {
+			Map<String, List<Presentation>> index = new HashMap<>();
+			for (Presentation presentation : presentations) {
+				String value = property.apply(presentation);
+				if (value != null) {
+					index.computeIfAbsent(value, key -> new ArrayList<>()).add(presentation);
+				}
+			}
+			index.replaceAll((key, list) -> Collections.unmodifiableList(list));
+
+			return Collections.unmodifiableMap(index);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.jeroenreijn.examples.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.jeroenreijn.examples.model.Presentation;
+
+/**
+ * Makes every query of another repository take as long as a call to a back-end would. The thread that asks
+ * sleeps, so on a platform thread it is blocked for that time, while a virtual thread gives up its carrier thread.
+ * Storing, deleting and the version are not delayed.
+ */
+public class LatencyPresentationsRepository implements PresentationsRepository {
+	private final PresentationsRepository delegate;
+	private final PresentationsLatency latency;
+
+	public LatencyPresentationsRepository(PresentationsRepository delegate, PresentationsLatency latency) {
+		this.delegate = delegate;
+		this.latency = latency;
+	}
+
+	@Override
+	public Iterable<Presentation> findAll() {
+		delay();
+		return delegate.findAll();
+	}
+
+	@Override
+	public List<Presentation> findAll(int offset, int limit) {
+		delay();
+		return delegate.findAll(offset, limit);
+	}
+
+	@Override
+	public List<Presentation> findAllAfter(Long afterId, int limit) {
+		delay();
+		return delegate.findAllAfter(afterId, limit);
+	}
+
+	@Override
+	public Optional<Presentation> findById(Long id) {
+		delay();
+		return delegate.findById(id);
+	}
+
+	@Override
+	public int count() {
+		delay();
+		return delegate.count();
+	}
+
+	@Override
+	public List<Presentation> findAllOrderByStartTime() {
+		delay();
+		return delegate.findAllOrderByStartTime();
+	}
+
+	@Override
+	public List<Presentation> findByStartTimeBetween(Date from, Date to) {
+		delay();
+		return delegate.findByStartTimeBetween(from, to);
+	}
+
+	@Override
+	public List<Presentation> findByRoom(String room) {
+		delay();
+		return delegate.findByRoom(room);
+	}
+
+	@Override
+	public List<Presentation> findBySpeakerName(String speakerName) {
+		delay();
+		return delegate.findBySpeakerName(speakerName);
+	}
+
+	@Override
+	public Presentation save(Presentation presentation) {
+		return delegate.save(presentation);
+	}
+
+	@Override
+	public boolean delete(Long id) {
+		return delegate.delete(id);
+	}
+
+	@Override
+	public long getVersion() {
+		return delegate.getVersion();
+	}
+
+	private void delay() {
+		long nanos = latency.nextNanos();
+		if (nanos <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
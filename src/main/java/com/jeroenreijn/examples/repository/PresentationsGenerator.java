@@ -0,0 +1,167 @@
+package com.jeroenreijn.examples.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.jeroenreijn.examples.model.Presentation;
+
+/**
+ * Generates a synthetic, reproducible list of presentations. The same settings and seed always produce the
+ * same presentations, so pages rendered from a generated repository can be compared between runs.
+ */
+public class PresentationsGenerator {
+	private static final String[] WORDS = { "template", "engine", "render", "Java", "Spring", "view", "model",
+			"session", "performance", "throughput", "latency", "cache", "compile", "stream", "servlet", "markup",
+			"developer", "conference", "keynote", "architecture", "scalable", "reactive", "functional", "data" };
+
+	private static final String[] UNICODE_WORDS = { "café", "naïve", "Zürich", "façade", "smörgåsbord", "Ωmega",
+			"résumé", "Straße", "東京", "данные", "λ-calculus", "🚀" };
+
+	private static final String[] ENTITIES = { "&amp;", "&apos;", "&#8220;", "&#8221;", "&#8217;", "<br/>" };
+
+	private static final String[] FIRST_NAMES = { "Jeroen", "Niels", "Jaap", "Bert", "Amir", "Sharat", "Allard",
+			"Shekhar", "Stephen", "Sander" };
+
+	private static final String[] LAST_NAMES = { "Reijn", "van Eijck", "ter Woerds", "Ertman", "Arooni", "Chander",
+			"Buijze", "Gulati", "Chin", "Mak" };
+
+	private static final long FIRST_START_TIME = 1383724800000L; // 2013-11-06T08:00:00Z
+	private static final long SLOT_MILLIS = TimeUnit.MINUTES.toMillis(60);
+	private static final long DURATION_MILLIS = TimeUnit.MINUTES.toMillis(50);
+
+	private boolean enabled = false;
+	private int size = 10;
+	private long seed = 42L;
+	private int summaryMinLength = 100;
+	private int summaryMaxLength = 800;
+	private double entityDensity = 0.05;
+	private boolean unicode = false;
+	private int rooms = 10;
+
+	public List<Presentation> generate() {
+		Random random = new Random(seed);
+		List<Presentation> presentations = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			Presentation presentation = new Presentation();
+			presentation.setId((long) i + 1);
+			presentation.setTitle(sentence(random, 3 + random.nextInt(8)));
+			presentation.setSpeakerName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+					+ LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+			presentation.setSummary(summary(random));
+			presentation.setRoom("Room " + (i % rooms + 1));
+
+			long startTime = FIRST_START_TIME + (i / rooms) * SLOT_MILLIS;
+			presentation.setStartTime(new Date(startTime));
+			presentation.setEndTime(new Date(startTime + DURATION_MILLIS));
+
+			presentations.add(presentation);
+		}
+
+		return presentations;
+	}
+
+	private String summary(Random random) {
+		int length = summaryMinLength + random.nextInt(Math.max(1, summaryMaxLength - summaryMinLength + 1));
+		StringBuilder summary = new StringBuilder(length + 16);
+
+		while (summary.length() < length) {
+			if (summary.length() > 0) {
+				summary.append(' ');
+			}
+			summary.append(word(random));
+			if (random.nextDouble() < entityDensity) {
+				summary.append(ENTITIES[random.nextInt(ENTITIES.length)]);
+			}
+		}
+
+		return summary.toString();
+	}
+
+	private String sentence(Random random, int words) {
+		StringBuilder sentence = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				sentence.append(' ');
+			}
+			sentence.append(word(random));
+		}
+		sentence.setCharAt(0, Character.toUpperCase(sentence.charAt(0)));
+
+		return sentence.toString();
+	}
+
+	private String word(Random random) {
+		if (unicode && random.nextInt(4) == 0) {
+			return UNICODE_WORDS[random.nextInt(UNICODE_WORDS.length)];
+		}
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(final int size) {
+		this.size = size;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(final long seed) {
+		this.seed = seed;
+	}
+
+	public int getSummaryMinLength() {
+		return summaryMinLength;
+	}
+
+	public void setSummaryMinLength(final int summaryMinLength) {
+		this.summaryMinLength = summaryMinLength;
+	}
+
+	public int getSummaryMaxLength() {
+		return summaryMaxLength;
+	}
+
+	public void setSummaryMaxLength(final int summaryMaxLength) {
+		this.summaryMaxLength = summaryMaxLength;
+	}
+
+	public double getEntityDensity() {
+		return entityDensity;
+	}
+
+	public void setEntityDensity(final double entityDensity) {
+		this.entityDensity = entityDensity;
+	}
+
+	public boolean isUnicode() {
+		return unicode;
+	}
+
+	public void setUnicode(final boolean unicode) {
+		this.unicode = unicode;
+	}
+
+	public int getRooms() {
+		return rooms;
+	}
+
+	public void setRooms(final int rooms) {
+		this.rooms = rooms;
+	}
+}
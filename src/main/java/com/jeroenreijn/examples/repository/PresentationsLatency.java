@@ -0,0 +1,77 @@
+package com.jeroenreijn.examples.repository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time a back-end would take to answer a query, see {@link LatencyPresentationsRepository}. With the
+ * {@code FIXED} distribution every query takes {@code millis}, with {@code UNIFORM} anything between {@code millis}
+ * and {@code maxMillis}, and with {@code EXPONENTIAL} {@code millis} on average, capped at {@code maxMillis} when
+ * that is set.
+ */
+public class PresentationsLatency {
+	public enum Distribution {
+		FIXED, UNIFORM, EXPONENTIAL
+	}
+
+	private Distribution distribution = Distribution.FIXED;
+	private double millis = 0;
+	private double maxMillis = 0;
+
+	public boolean isEnabled() {
+		return millis > 0;
+	}
+
+	/**
+	 * The latency of the next query.
+	 */
+	public long nextNanos() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		double next;
+		switch (distribution) {
+		case UNIFORM:
+			next = maxMillis > millis ? random.nextDouble(millis, maxMillis) : millis;
+			break;
+		case EXPONENTIAL:
+			next = -millis * Math.log(1 - random.nextDouble());
+			if (maxMillis > 0) {
+				next = Math.min(next, maxMillis);
+			}
+			break;
+		default:
+			next = millis;
+		}
+
+		return (long) (next * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	public Distribution getDistribution() {
+		return distribution;
+	}
+
+	public void setDistribution(Distribution distribution) {
+		this.distribution = distribution;
+	}
+
+	public double getMillis() {
+		return millis;
+	}
+
+	public void setMillis(double millis) {
+		this.millis = millis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	public void setMaxMillis(double maxMillis) {
+		this.maxMillis = maxMillis;
+	}
+
+	@Override
+	public String toString() {
+		return distribution.name().toLowerCase() + " " + millis + " ms"
+				+ (maxMillis > 0 ? ", at most " + maxMillis + " ms" : "");
+	}
+}
@@ -1,11 +1,59 @@
 package com.jeroenreijn.examples.repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import com.jeroenreijn.examples.model.Presentation;
 
 public interface PresentationsRepository {
+	/**
+	 * All presentations, ordered by id.
+	 */
 	Iterable<Presentation> findAll();
 
+	/**
+	 * At most {@code limit} presentations ordered by id, skipping the first {@code offset}.
+	 */
+	List<Presentation> findAll(int offset, int limit);
+
+	/**
+	 * At most {@code limit} presentations ordered by id, starting after the given id. Unlike an offset, the id
+	 * stays valid while presentations are added or deleted.
+	 */
+	List<Presentation> findAllAfter(Long afterId, int limit);
+
 	Optional<Presentation> findById(Long id);
-}
\ No newline at end of file
+
+	/**
+	 * The number of presentations.
+	 */
+	int count();
+
+	/**
+	 * All presentations ordered by start time, presentations without a start time last.
+	 */
+	List<Presentation> findAllOrderByStartTime();
+
+	/**
+	 * The presentations starting at or after {@code from} and before {@code to}, ordered by start time.
+	 */
+	List<Presentation> findByStartTimeBetween(Date from, Date to);
+
+	List<Presentation> findByRoom(String room);
+
+	List<Presentation> findBySpeakerName(String speakerName);
+
+	/**
+	 * Stores the presentation, replacing the one with the same id. A presentation without an id gets the next free
+	 * one.
+	 */
+	Presentation save(Presentation presentation);
+
+	boolean delete(Long id);
+
+	/**
+	 * A number that changes whenever the contents of the repository change.
+	 */
+	long getVersion();
+}
@@ -0,0 +1,94 @@
+package com.jeroenreijn.examples.services;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.jeroenreijn.examples.model.i18nLayout;
+
+/**
+ * Hands out one immutable message table per locale, so a page resolves its locale once and then reads its messages
+ * from a plain map. Only the locales of {@code messages.locales} get a table, filled from messages.properties at
+ * startup. Any other locale, which a client chooses with its {@code Accept-Language} header, gets the table of a
+ * configured locale with the same language, or else the one of the first configured locale, so clients cannot make
+ * the service build more tables. Changes to the message bundles are not picked up.
+ */
+@Service
+public class MessagesService implements InitializingBean {
+	private static final String MESSAGES_LOCATION = "classpath:/messages.properties";
+
+	@Autowired
+	MessageSource messageSource;
+
+	@Autowired
+	ResourceLoader resourceLoader;
+
+	@Value("${messages.locales:en_US}")
+	String[] locales;
+
+	private Map<Locale, i18nLayout> tables = Collections.emptyMap();
+	private Map<String, i18nLayout> languages = Collections.emptyMap();
+	private i18nLayout defaultTable;
+	private Set<String> keys = Collections.emptySet();
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		keys = PropertiesLoaderUtils.loadProperties(
+				new EncodedResource(resourceLoader.getResource(MESSAGES_LOCATION), "UTF-8")).stringPropertyNames();
+
+		Map<Locale, i18nLayout> tables = new LinkedHashMap<>();
+		Map<String, i18nLayout> languages = new HashMap<>();
+		for (String name : locales) {
+			Locale locale = StringUtils.parseLocale(name.trim());
+			i18nLayout table = tables.computeIfAbsent(locale, this::createTable);
+			languages.putIfAbsent(locale.getLanguage(), table);
+			if (defaultTable == null) {
+				defaultTable = table;
+			}
+		}
+		if (defaultTable == null) {
+			throw new IllegalStateException("No locales configured in messages.locales");
+		}
+		this.tables = tables;
+		this.languages = languages;
+	}
+
+	/**
+	 * The table of the given locale when it is configured, otherwise the one of its fallback.
+	 */
+	public i18nLayout forLocale(Locale locale) {
+		i18nLayout table = tables.get(locale);
+		if (table == null) {
+			table = languages.getOrDefault(locale.getLanguage(), defaultTable);
+		}
+		return table;
+	}
+
+	private i18nLayout createTable(Locale locale) {
+		Map<String, String> messages = new HashMap<>();
+		for (String key : keys) {
+			try {
+				messages.put(key, messageSource.getMessage(key, null, locale));
+			} catch (NoSuchMessageException e) {
+				// Left to the message source, which reports it when the key is used
+			}
+		}
+
+		return new i18nLayout(locale, messages, messageSource);
+	}
+}
@@ -0,0 +1,160 @@
+package com.jeroenreijn.examples.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.PropertyPlaceholderHelper;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import com.jeroenreijn.examples.model.PageFragments;
+
+/**
+ * Renders the head and the scripts every page shares once per engine and locale, from the markup in
+ * templates/fragments, so the templates write them as they are instead of rendering their partials on each request.
+ * The fragments are rendered at startup for the locales of {@code messages.locales} only. Any other locale gets the
+ * fragments of a configured locale with the same language, or else those of the first configured locale, like the
+ * message tables of {@link MessagesService}. Only the enabled engines whose templates write the fragments get them.
+ */
+@Service
+public class PageFragmentsService implements InitializingBean {
+	private static final String HEAD_LOCATION = "classpath:/templates/fragments/head.html";
+	private static final String SCRIPTS_LOCATION = "classpath:/templates/fragments/scripts.html";
+
+	private static final Map<String, String> ENGINE_NAMES;
+
+	/**
+	 * The engines whose templates write the fragments.
+	 */
+	public static final Set<String> ENGINES;
+
+	static {
+		// The names the engines whose templates write the fragments put in the title of their page
+		Map<String, String> names = new LinkedHashMap<>();
+		names.put("jsp", "JSP");
+		names.put("freemarker", "Freemarker");
+		names.put("velocity", "Velocity");
+		names.put("thymeleaf", "Thymeleaf");
+		names.put("jade", "Jade4j");
+		names.put("mustache", "Mustache");
+		names.put("pebble", "Pebble");
+		names.put("handlebars", "Handlebars");
+		names.put("jtwig", "jtwig");
+		names.put("httl", "Httl");
+		names.put("trimou", "Trimou");
+		names.put("rocker", "Rocker");
+		names.put("ickenham", "Ickenham");
+		names.put("groovy", "Groovy");
+		names.put("liqp", "Liqp");
+		ENGINE_NAMES = Collections.unmodifiableMap(names);
+		ENGINES = ENGINE_NAMES.keySet();
+	}
+
+	private static final PropertyPlaceholderHelper PLACEHOLDERS = new PropertyPlaceholderHelper("${", "}");
+
+	@Autowired
+	MessagesService messagesService;
+
+	@Autowired
+	ResourceLoader resourceLoader;
+
+	@Autowired
+	Environment environment;
+
+	@Value("${templates.fragments.enabled:false}")
+	boolean enabled;
+
+	@Value("${messages.locales:en_US}")
+	String[] locales;
+
+	@Value("${server.servlet.context-path:}")
+	String contextPath;
+
+	private Map<Locale, Map<String, PageFragments>> fragments = Collections.emptyMap();
+	private Map<String, Map<String, PageFragments>> languages = Collections.emptyMap();
+	private Map<String, PageFragments> defaultFragments = Collections.emptyMap();
+	private Set<String> engines = Collections.emptySet();
+	private String head = "";
+	private String scripts = "";
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		if (!enabled) {
+			return;
+		}
+
+		head = load(HEAD_LOCATION);
+		scripts = load(SCRIPTS_LOCATION);
+		engines = new LinkedHashSet<>(Engines.enabled(environment));
+		engines.retainAll(ENGINES);
+
+		Map<Locale, Map<String, PageFragments>> fragments = new LinkedHashMap<>();
+		Map<String, Map<String, PageFragments>> languages = new HashMap<>();
+		for (String name : locales) {
+			Locale locale = StringUtils.parseLocale(name.trim());
+			Map<String, PageFragments> pages = fragments.computeIfAbsent(locale, this::render);
+			languages.putIfAbsent(locale.getLanguage(), pages);
+		}
+		if (fragments.isEmpty()) {
+			throw new IllegalStateException("No locales configured in messages.locales");
+		}
+		this.defaultFragments = fragments.values().iterator().next();
+		this.fragments = fragments;
+		this.languages = languages;
+	}
+
+	/**
+	 * The fragments of the page of the given engine, or {@code null} when the fragments are turned off or the engine
+	 * renders its own.
+	 */
+	public PageFragments forPage(String template, Locale locale) {
+		return enabled ? forLocale(locale).get(template) : null;
+	}
+
+	private Map<String, PageFragments> forLocale(Locale locale) {
+		Map<String, PageFragments> pages = fragments.get(locale);
+		if (pages == null) {
+			pages = languages.getOrDefault(locale.getLanguage(), defaultFragments);
+		}
+		return pages;
+	}
+
+	private Map<String, PageFragments> render(Locale locale) {
+		String title = messagesService.forLocale(locale).message("example.title");
+
+		Map<String, PageFragments> pages = new HashMap<>();
+		for (String engine : engines) {
+			Properties values = new Properties();
+			values.setProperty("title", HtmlUtils.htmlEscape(title + " - " + ENGINE_NAMES.get(engine), "UTF-8"));
+			values.setProperty("contextPath", contextPath);
+
+			pages.put(engine, new PageFragments(PLACEHOLDERS.replacePlaceholders(head, values),
+					PLACEHOLDERS.replacePlaceholders(scripts, values)));
+		}
+
+		return Collections.unmodifiableMap(pages);
+	}
+
+	private String load(String location) throws IOException {
+		try (InputStream in = resourceLoader.getResource(location).getInputStream()) {
+			return StringUtils.trimTrailingWhitespace(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.jeroenreijn.examples.services;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * The elements of a source that is read one page at a time. An iterator asks for the first page as soon as it is
+ * created and keeps up to {@code prefetch} pages on their way while the current one is consumed, so a view renders
+ * the first rows while later ones are still being fetched. A page shorter than the page size is the last one.
+ *
+ * The next page is asked for with the last element of the previous page, or {@code null} for the first page. Every
+ * call to {@link #iterator()} reads the source again; an iterator that is not read to the end leaves at most
+ * {@code prefetch} fetches running. It is a {@link java.util.Collection} because several engines, JSTL among them,
+ * only iterate over collections; its size is counted by the source without reading the pages.
+ */
+public class PrefetchingCollection<T> extends AbstractCollection<T> {
+	private final Function<T, List<T>> nextPage;
+	private final IntSupplier count;
+	private final int pageSize;
+	private final int prefetch;
+	private final Executor executor;
+
+	public PrefetchingCollection(Function<T, List<T>> nextPage, IntSupplier count, int pageSize, int prefetch,
+			Executor executor) {
+		if (pageSize < 1 || prefetch < 1) {
+			throw new IllegalArgumentException("Page size and prefetch must be at least 1");
+		}
+		this.nextPage = nextPage;
+		this.count = count;
+		this.pageSize = pageSize;
+		this.prefetch = prefetch;
+		this.executor = executor;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new PrefetchingIterator();
+	}
+
+	@Override
+	public int size() {
+		return count.getAsInt();
+	}
+
+	private class PrefetchingIterator implements Iterator<T> {
+		private final Deque<CompletableFuture<List<T>>> pages = new ArrayDeque<>();
+		private CompletableFuture<List<T>> tail;
+		private Iterator<T> current = Collections.emptyIterator();
+		private boolean lastPage;
+
+		PrefetchingIterator() {
+			tail = CompletableFuture.supplyAsync(() -> nextPage.apply(null), executor);
+			pages.add(tail);
+			fill();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!current.hasNext()) {
+				if (pages.isEmpty()) {
+					return false;
+				}
+				List<T> page = await(pages.poll());
+				if (page.size() < pageSize) {
+					lastPage = true;
+					pages.clear();
+				} else {
+					fill();
+				}
+				current = page.iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+		private void fill() {
+			while (!lastPage && pages.size() < prefetch) {
+				tail = tail.thenApplyAsync(this::following, executor);
+				pages.add(tail);
+			}
+		}
+
+		private List<T> following(List<T> page) {
+			if (page.size() < pageSize) {
+				return Collections.emptyList();
+			}
+			return nextPage.apply(page.get(page.size() - 1));
+		}
+
+		private List<T> await(CompletableFuture<List<T>> page) {
+			try {
+				return page.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException("Could not fetch the next page", e.getCause());
+			}
+		}
+	}
+}
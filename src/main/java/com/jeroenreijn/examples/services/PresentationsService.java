@@ -1,6 +1,17 @@
 package com.jeroenreijn.examples.services;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.jeroenreijn.examples.model.Presentation;
@@ -9,15 +20,90 @@ import com.jeroenreijn.examples.repository.PresentationsRepository;
 /**
  * Simple service for fetching presentations.
  *
+ * With a fetch page size, all presentations are read from the repository one page at a time, the way they would
+ * come from a paged back-end. The pages are either all read before the view renders, or read lazily while the view
+ * iterates, a number of pages ahead of it.
+ *
  * @author Jeroen Reijn
  */
 @Service
-public class PresentationsService {
+public class PresentationsService implements InitializingBean, DisposableBean {
 
 	@Autowired
 	PresentationsRepository presentationsRepository;
 
+	@Value("${presentations.fetch.page-size:0}")
+	int fetchPageSize;
+
+	@Value("${presentations.fetch.lazy:false}")
+	boolean fetchLazily;
+
+	@Value("${presentations.fetch.prefetch:2}")
+	int fetchPrefetch;
+
+	@Value("${presentations.fetch.threads:16}")
+	int fetchThreads;
+
+	private ExecutorService fetchExecutor;
+
+	@Override
+	public void afterPropertiesSet() {
+		if (fetchPageSize > 0 && fetchLazily) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("presentations-fetch-");
+			threadFactory.setDaemon(true);
+			// Bounded, with many connections the pages wait in the queue instead of starting a thread each
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(fetchThreads, fetchThreads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), threadFactory);
+			executor.allowCoreThreadTimeOut(true);
+			fetchExecutor = executor;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (fetchExecutor != null) {
+			fetchExecutor.shutdownNow();
+		}
+	}
+
 	public Iterable<Presentation> findAll() {
-		return this.presentationsRepository.findAll();
+		if (fetchPageSize <= 0) {
+			return this.presentationsRepository.findAll();
+		}
+		if (fetchExecutor != null) {
+			return new PrefetchingCollection<>(this::findPageFollowing, this.presentationsRepository::count,
+					fetchPageSize, fetchPrefetch, fetchExecutor);
+		}
+
+		List<Presentation> all = new ArrayList<>();
+		List<Presentation> page = findPageFollowing(null);
+		all.addAll(page);
+		while (page.size() == fetchPageSize) {
+			page = findPageFollowing(page.get(page.size() - 1));
+			all.addAll(page);
+		}
+		return all;
+	}
+
+	private List<Presentation> findPageFollowing(Presentation last) {
+		if (last == null) {
+			return this.presentationsRepository.findAll(0, fetchPageSize);
+		}
+		return this.presentationsRepository.findAllAfter(last.getId(), fetchPageSize);
+	}
+
+	/**
+	 * One page of presentations ordered by id, pages start at 0.
+	 */
+	public List<Presentation> findPage(int page, int size) {
+		return this.presentationsRepository.findAll((int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+	}
+
+	public List<Presentation> findAfter(Long afterId, int size) {
+		return this.presentationsRepository.findAllAfter(afterId, size);
+	}
+
+	public long getVersion() {
+		return this.presentationsRepository.getVersion();
 	}
 }
@@ -1,20 +1,66 @@
 package com.jeroenreijn.examples.view;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.xmlet.htmlapifaster.EnumMediaType;
 import org.xmlet.htmlapifaster.EnumRelType;
 
+import com.jeroenreijn.examples.model.EncodedPresentation;
 import com.jeroenreijn.examples.model.Presentation;
 
 import htmlflow.DynamicHtml;
 import htmlflow.HtmlView;
+import htmlflow.HtmlWriter;
 
 public class HtmlFlowIndexView {
 	public static final HtmlView<Map<String, Object>> view = DynamicHtml
 		.view(HtmlFlowIndexView::templatePresentations)
 		.threadSafe();
 
+	/**
+	 * The same page without indentation and line breaks.
+	 */
+	public static final HtmlView<Map<String, Object>> minifiedView = DynamicHtml
+		.view(HtmlFlowIndexView::templatePresentations)
+		.setIndented(false)
+		.threadSafe();
+
+	/**
+	 * HtmlFlow only writes to a {@link PrintStream} from views that are not thread safe, and binding a view to a new
+	 * stream throws away its cache of static HTML. A request therefore borrows a view from a small pool, bound to a
+	 * stream that is pointed at its response. A pool rather than a view per thread, as on virtual threads every
+	 * request has a thread of its own and would start without the cache.
+	 */
+	private static final StreamingViews streamingViews = new StreamingViews(true);
+	private static final StreamingViews minifiedStreamingViews = new StreamingViews(false);
+
+	/**
+	 * Writes the page straight to the given stream while it is produced. HtmlFlow encodes the output with the
+	 * platform default charset.
+	 */
+	public static void write(Map<String, Object> model, OutputStream out, boolean indented) throws IOException {
+		StreamingViews views = indented ? streamingViews : minifiedStreamingViews;
+		StreamingView view = views.acquire();
+		boolean written = false;
+		try {
+			written = view.write(model, out);
+		} finally {
+			// the print stream keeps its error flag and the view may be half way a page, so it is not reused
+			if (written) {
+				views.release(view);
+			}
+		}
+		if (!written) {
+			throw new IOException("Failed to write the HtmlFlow view");
+		}
+	}
+
 	private static void templatePresentations(DynamicHtml<Map<String, Object>> view, Map<String, Object> map) {
 		@SuppressWarnings("unchecked")
 		Iterable<Presentation> presentations = (Iterable<Presentation>) map.get("presentations");
@@ -48,7 +94,7 @@ public class HtmlFlowIndexView {
 											.h5()
 												.of(h5 -> h5
 													.attrClass("card-title")
-													.text(presentation.getTitle() + " - " + presentation.getSpeakerName())
+													.text(cardTitle(presentation))
 												)
 											.__() // h5
 										.__() // div
@@ -67,4 +113,86 @@ public class HtmlFlowIndexView {
 				.__() // body
 			.__(); // html
 	}
+
+	/**
+	 * HtmlFlow writes text as it is. Pre-encoded presentations hand out their stored escaped forms, the others their
+	 * text, as this view always wrote it. The summary is markup, which every template writes as it is.
+	 */
+	private static String cardTitle(Presentation presentation) {
+		if (presentation instanceof EncodedPresentation) {
+			return presentation.getTitleText().getHtml() + " - " + presentation.getSpeakerNameText().getHtml();
+		}
+		return presentation.getTitle() + " - " + presentation.getSpeakerName();
+	}
+
+	private static class StreamingViews {
+		private static final int MAX_POOLED = 16;
+
+		private final boolean indented;
+		private final Deque<StreamingView> idle = new ConcurrentLinkedDeque<>();
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		StreamingViews(boolean indented) {
+			this.indented = indented;
+		}
+
+		StreamingView acquire() {
+			StreamingView view = idle.pollFirst();
+			if (view == null) {
+				return new StreamingView(indented);
+			}
+			idleCount.decrementAndGet();
+			return view;
+		}
+
+		void release(StreamingView view) {
+			if (idleCount.incrementAndGet() > MAX_POOLED) {
+				idleCount.decrementAndGet();
+				return;
+			}
+			idle.offerFirst(view);
+		}
+	}
+
+	private static class StreamingView {
+		private final TargetOutputStream target = new TargetOutputStream();
+		private final PrintStream printStream;
+		private final HtmlWriter<Map<String, Object>> writer;
+
+		StreamingView(boolean indented) {
+			this.printStream = new PrintStream(target);
+			this.writer = DynamicHtml.view(printStream, HtmlFlowIndexView::templatePresentations)
+				.setIndented(indented);
+		}
+
+		boolean write(Map<String, Object> model, OutputStream out) {
+			target.out = out;
+			try {
+				writer.write(model);
+
+				return !printStream.checkError();
+			} finally {
+				target.out = null;
+			}
+		}
+	}
+
+	private static class TargetOutputStream extends OutputStream {
+		private OutputStream out;
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+	}
 }
@@ -1,6 +1,7 @@
 package com.jeroenreijn.examples.view;
 
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -8,20 +9,63 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.web.servlet.view.AbstractTemplateView;
 
+import htmlflow.HtmlView;
+
 public class HtmlFlowView extends AbstractTemplateView {
+	private boolean streaming;
+	private boolean minified;
+	private RenderBuffers renderBuffers;
+
+	/**
+	 * Write the page to the response while it is produced instead of rendering it to a String first.
+	 */
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Leave out the indentation and line breaks.
+	 */
+	public void setMinified(final boolean minified) {
+		this.minified = minified;
+	}
+
+	/**
+	 * Encode the page into a pooled buffer and send it with its length. Not used when {@code null}.
+	 */
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
 
 	@Override
 	protected void renderMergedTemplateModel(Map<String, Object> model, HttpServletRequest request,
 			HttpServletResponse response) throws Exception {
-		String html = HtmlFlowIndexView.view.render(model);
-
-		response.setContentLength(html.length());
 		response.setContentType("text/html");
 		response.setCharacterEncoding("UTF-8");
 
-		try (PrintWriter writer = response.getWriter()) {
-			writer.write(html);
-			writer.flush();
+		if (streaming) {
+			HtmlFlowIndexView.write(model, response.getOutputStream(), !minified);
+			return;
+		}
+
+		HtmlView<Map<String, Object>> view = minified ? HtmlFlowIndexView.minifiedView : HtmlFlowIndexView.view;
+		if (renderBuffers != null) {
+			RenderBuffer buffer = renderBuffers.acquire(getUrl());
+			try {
+				buffer.getWriter().write(view.render(model));
+				buffer.writeTo(response);
+			} finally {
+				buffer.release();
+			}
+			return;
+		}
+
+		byte[] html = view.render(model).getBytes(StandardCharsets.UTF_8);
+		response.setContentLength(html.length);
+
+		try (OutputStream out = response.getOutputStream()) {
+			out.write(html);
+			out.flush();
 		}
 	}
 }
@@ -1,14 +1,54 @@
 package com.jeroenreijn.examples.view;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
 public class HtmlFlowViewResolver extends AbstractTemplateViewResolver {
+	private static final Logger LOGGER = LoggerFactory.getLogger(HtmlFlowViewResolver.class);
+
+	private boolean streaming;
+	private boolean minified;
+	private RenderBuffers renderBuffers;
+
 	public HtmlFlowViewResolver() {
 		this.setViewClass(this.requiredViewClass());
 	}
 
+	public void setStreaming(final boolean streaming) {
+		if (streaming && !StandardCharsets.UTF_8.equals(Charset.defaultCharset())) {
+			// HtmlFlow ignores the encoding of the PrintStream it writes to and uses the platform default
+			LOGGER.warn("HtmlFlow streaming needs UTF-8 as default charset but found {}, rendering to a String instead",
+					Charset.defaultCharset());
+			return;
+		}
+		this.streaming = streaming;
+	}
+
+	public void setMinified(final boolean minified) {
+		this.minified = minified;
+	}
+
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
 	@Override
 	protected Class<?> requiredViewClass() {
 		return HtmlFlowView.class;
 	}
+
+	@Override
+	protected AbstractUrlBasedView buildView(final String viewName) throws Exception {
+		HtmlFlowView view = (HtmlFlowView) super.buildView(viewName);
+		view.setStreaming(streaming);
+		view.setMinified(minified);
+		view.setRenderBuffers(renderBuffers);
+
+		return view;
+	}
 }
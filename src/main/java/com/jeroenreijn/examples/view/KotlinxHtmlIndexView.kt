@@ -10,10 +10,19 @@ import java.lang.StringBuilder
 class KotlinxHtmlIndexView {
     companion object {
 
-        fun presentationsTemplate(presentations : Iterable<Presentation> ): String {
+        fun presentationsTemplate(presentations : Iterable<Presentation>, prettyPrint : Boolean = true): String {
             val output = StringBuilder()
+            presentationsTemplate(output, presentations, prettyPrint)
+            return output.toString()
+        }
+
+        /**
+         * Appends the page to [output] while it is produced, for example straight to the writer of the response.
+         * Without [prettyPrint] the page has no indentation and line breaks.
+         */
+        fun presentationsTemplate(output : Appendable, presentations : Iterable<Presentation>, prettyPrint : Boolean = true) {
             output
-                .appendHTML()
+                .appendHTML(prettyPrint)
                     .html {
                         head {
                             meta {charset = "utf-8" }
@@ -52,7 +61,6 @@ class KotlinxHtmlIndexView {
                             script { src = "/webjars/bootstrap/4.3.1/js/bootstrap.min.js" }
                         }
                     }
-            return output.toString()
         }
     }
 
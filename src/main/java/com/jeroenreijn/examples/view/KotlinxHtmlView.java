@@ -5,24 +5,67 @@ import org.springframework.web.servlet.view.AbstractTemplateView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class KotlinxHtmlView extends AbstractTemplateView {
+	private boolean streaming;
+	private boolean minified;
+	private RenderBuffers renderBuffers;
+
+	/**
+	 * Write the page to the response while it is produced instead of rendering it to a String first.
+	 */
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Leave out the indentation and line breaks.
+	 */
+	public void setMinified(final boolean minified) {
+		this.minified = minified;
+	}
+
+	/**
+	 * Encode the page into a pooled buffer and send it with its length. Not used when {@code null}.
+	 */
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
 
 	@Override
 	protected void renderMergedTemplateModel(Map<String, Object> model, HttpServletRequest request,
 			HttpServletResponse response) throws Exception {
 		Iterable<Presentation> presentations = (Iterable<Presentation>) model.get("presentations");
-		String html = KotlinxHtmlIndexView.Companion.presentationsTemplate(presentations);
 
-		response.setContentLength(html.length());
 		response.setContentType("text/html");
 		response.setCharacterEncoding("UTF-8");
 
-		try (PrintWriter writer = response.getWriter()) {
-			writer.write(html);
-			writer.flush();
+		if (streaming) {
+			KotlinxHtmlIndexView.Companion.presentationsTemplate(response.getWriter(), presentations, !minified);
+			return;
+		}
+
+		if (renderBuffers != null) {
+			RenderBuffer buffer = renderBuffers.acquire(getUrl());
+			try {
+				KotlinxHtmlIndexView.Companion.presentationsTemplate(buffer.getWriter(), presentations, !minified);
+				buffer.writeTo(response);
+			} finally {
+				buffer.release();
+			}
+			return;
+		}
+
+		byte[] html = KotlinxHtmlIndexView.Companion.presentationsTemplate(presentations, !minified)
+				.getBytes(StandardCharsets.UTF_8);
+		response.setContentLength(html.length);
+
+		try (OutputStream out = response.getOutputStream()) {
+			out.write(html);
+			out.flush();
 		}
 	}
 }
@@ -1,14 +1,41 @@
 package com.jeroenreijn.examples.view;
 
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
 public class KotlinxHtmlViewResolver extends AbstractTemplateViewResolver {
+	private boolean streaming;
+	private boolean minified;
+	private RenderBuffers renderBuffers;
+
 	public KotlinxHtmlViewResolver() {
 		this.setViewClass(this.requiredViewClass());
 	}
 
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public void setMinified(final boolean minified) {
+		this.minified = minified;
+	}
+
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
 	@Override
 	protected Class<?> requiredViewClass() {
 		return KotlinxHtmlView.class;
 	}
+
+	@Override
+	protected AbstractUrlBasedView buildView(final String viewName) throws Exception {
+		KotlinxHtmlView view = (KotlinxHtmlView) super.buildView(viewName);
+		view.setStreaming(streaming);
+		view.setMinified(minified);
+		view.setRenderBuffers(renderBuffers);
+
+		return view;
+	}
 }
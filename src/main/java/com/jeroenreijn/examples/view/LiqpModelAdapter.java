@@ -0,0 +1,56 @@
+package com.jeroenreijn.examples.view;
+
+import com.jeroenreijn.examples.model.PageFragments;
+import com.jeroenreijn.examples.model.Presentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns presentations into the maps Liqp looks up its variables in. Liqp would otherwise convert the whole model
+ * to JSON and back on every render. The maps are built on every render, as views render different models at the
+ * same time.
+ */
+public class LiqpModelAdapter {
+
+	public List<Map<String, Object>> adapt(Iterable<Presentation> presentations) {
+		List<Map<String, Object>> maps = new ArrayList<>();
+		for (Presentation presentation : presentations) {
+			maps.add(toMap(presentation));
+		}
+
+		return maps;
+	}
+
+	/**
+	 * The head and the scripts of the page, or {@code null} when the template renders its own.
+	 */
+	public Map<String, Object> adapt(PageFragments fragments) {
+		if (fragments == null) {
+			return null;
+		}
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("head", fragments.getHead());
+		map.put("scripts", fragments.getScripts());
+
+		return map;
+	}
+
+	private static Map<String, Object> toMap(Presentation presentation) {
+		// The same properties, and the same epoch millis for dates, as the JSON conversion of Liqp produced
+		Map<String, Object> map = new HashMap<>();
+		map.put("id", presentation.getId());
+		map.put("title", presentation.getTitle());
+		map.put("speakerName", presentation.getSpeakerName());
+		map.put("summary", presentation.getSummary());
+		map.put("room", presentation.getRoom());
+		map.put("startTime", presentation.getStartTime() == null ? null : presentation.getStartTime().getTime());
+		map.put("endTime", presentation.getEndTime() == null ? null : presentation.getEndTime().getTime());
+
+		return Collections.unmodifiableMap(map);
+	}
+}
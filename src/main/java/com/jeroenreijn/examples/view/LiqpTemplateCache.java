@@ -0,0 +1,98 @@
+package com.jeroenreijn.examples.view;
+
+import liqp.ParseSettings;
+import liqp.ProtectionSettings;
+import liqp.RenderSettings;
+import liqp.Template;
+import liqp.TemplateContext;
+import liqp.filters.Filter;
+import liqp.nodes.LNode;
+import liqp.parser.v4.NodeVisitor;
+import liqp.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the parsed Liqp templates by URL, so the ANTLR lexer and parser only run again when the template resource
+ * has been modified. Safe to share between threads; two threads missing the cache at the same time may both parse
+ * the template, and the last one wins.
+ *
+ * The cached templates are turned into their node tree once. {@link Template#render(Map)} would build the tree on
+ * every render and first convert the variables to JSON and back.
+ */
+public class LiqpTemplateCache {
+	private final ConcurrentMap<String, ParsedTemplate> templates = new ConcurrentHashMap<>();
+	private final Map<String, Filter> filters;
+	private final ParseSettings parseSettings = new ParseSettings.Builder().build();
+	private final RenderSettings renderSettings = new RenderSettings.Builder().build();
+	private final ProtectionSettings protectionSettings = new ProtectionSettings.Builder().build();
+
+	public LiqpTemplateCache() {
+		this(Filter.getFilters());
+	}
+
+	public LiqpTemplateCache(Map<String, Filter> filters) {
+		this.filters = filters;
+	}
+
+	/**
+	 * Renders the template with the given variables. The variables are used as they are, so they must only contain
+	 * maps, lists, strings, numbers and booleans.
+	 */
+	public String render(String url, Resource resource, Map<String, Object> variables) throws IOException {
+		Object rendered = get(url, resource).render(
+				new TemplateContext(protectionSettings, renderSettings, parseSettings, variables));
+
+		return rendered == null ? "" : String.valueOf(rendered);
+	}
+
+	public void clear() {
+		templates.clear();
+	}
+
+	private LNode get(String url, Resource resource) throws IOException {
+		long lastModified = lastModified(resource);
+		ParsedTemplate parsed = templates.get(url);
+
+		if (parsed == null || parsed.lastModified != lastModified) {
+			parsed = new ParsedTemplate(parse(resource), lastModified);
+			templates.put(url, parsed);
+		}
+
+		return parsed.root;
+	}
+
+	private LNode parse(Resource resource) throws IOException {
+		try (InputStream in = resource.getInputStream()) {
+			Template template = Template.parse(StreamUtils.copyToString(in, StandardCharsets.UTF_8), parseSettings);
+
+			return new NodeVisitor(Tag.getTags(), filters, parseSettings).visit(template.getParseTree());
+		}
+	}
+
+	private static long lastModified(Resource resource) {
+		try {
+			return resource.lastModified();
+		} catch (IOException e) {
+			// Not every resource knows when it was modified, such a template is never reloaded
+			return -1;
+		}
+	}
+
+	private static class ParsedTemplate {
+		private final LNode root;
+		private final long lastModified;
+
+		ParsedTemplate(LNode root, long lastModified) {
+			this.root = root;
+			this.lastModified = lastModified;
+		}
+	}
+}
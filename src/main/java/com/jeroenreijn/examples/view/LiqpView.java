@@ -1,35 +1,66 @@
 package com.jeroenreijn.examples.view;
 
-import liqp.Template;
+import com.jeroenreijn.examples.model.PageFragments;
+import com.jeroenreijn.examples.model.Presentation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.ResourceUtils;
+import org.springframework.core.io.Resource;
 import org.springframework.web.servlet.view.AbstractTemplateView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.File;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
 public class LiqpView extends AbstractTemplateView {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LiqpView.class);
 
+	private LiqpTemplateCache templateCache = new LiqpTemplateCache();
+	private LiqpModelAdapter modelAdapter = new LiqpModelAdapter();
+	private RenderBuffers renderBuffers;
+
+	public void setTemplateCache(LiqpTemplateCache templateCache) {
+		this.templateCache = templateCache;
+	}
+
+	public void setModelAdapter(LiqpModelAdapter modelAdapter) {
+		this.modelAdapter = modelAdapter;
+	}
+
+	/**
+	 * Encode the page into a pooled buffer and send it with its length. Not used when {@code null}.
+	 */
+	public void setRenderBuffers(RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	protected void renderMergedTemplateModel(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
 		String templateUrl = this.getUrl();
-		File templateFile = ResourceUtils.getFile(templateUrl);
-		if (templateFile.exists()) {
-			// Liqp serializes the entire "model" to JSON Object and then to Map. This fails for custom and Spring classes
-			model.remove("springMacroRequestContext");
-			model.remove("org.springframework.validation.BindingResult.i18n");
-			model.remove("i18n");
-
-			// Just in case, we need it as in all other view resolvers
-			model.put("contextPath", request.getContextPath());
-
-			String rendered = Template.parse(templateFile).render(model);
-			response.getWriter().write(rendered);
+		Resource templateResource = getTemplateResource();
+		if (templateResource.exists()) {
+			// Liqp gets the variables as they are, the presentations are handed over as maps
+			Map<String, Object> variables = new HashMap<>();
+			variables.put("presentations", modelAdapter.adapt((Iterable<Presentation>) model.get("presentations")));
+			variables.put("contextPath", request.getContextPath());
+			variables.put(LiqpViewResolver.MESSAGES_VARIABLE, model.get("i18n"));
+			variables.put("fragments", modelAdapter.adapt((PageFragments) model.get("fragments")));
+
+			String rendered = templateCache.render(templateUrl, templateResource, variables);
+			if (renderBuffers == null) {
+				response.getWriter().write(rendered);
+				return;
+			}
+
+			RenderBuffer buffer = renderBuffers.acquire(templateUrl);
+			try {
+				buffer.getWriter().write(rendered);
+				buffer.writeTo(response);
+			} finally {
+				buffer.release();
+			}
 		} else {
 			LOGGER.error("Template not found: {}", templateUrl);
 		}
@@ -37,6 +68,10 @@ public class LiqpView extends AbstractTemplateView {
 
 	@Override
 	public boolean checkResource(Locale locale) throws Exception {
-		return this.getUrl().endsWith(".liqp");
+		return this.getUrl().endsWith(".liqp") && getTemplateResource().exists();
+	}
+
+	private Resource getTemplateResource() {
+		return obtainApplicationContext().getResource(this.getUrl());
 	}
 }
@@ -1,25 +1,61 @@
 package com.jeroenreijn.examples.view;
 
+import com.jeroenreijn.examples.model.i18nLayout;
+import liqp.TemplateContext;
 import liqp.filters.Filter;
-import org.springframework.context.MessageSource;
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.Map;
 
 public class LiqpViewResolver extends AbstractTemplateViewResolver {
-	public LiqpViewResolver(MessageSource messageSource) {
+	/**
+	 * The template variable holding the messages for the locale of the request, read by the i18n filter.
+	 */
+	static final String MESSAGES_VARIABLE = "liqp@i18n";
+
+	private final LiqpTemplateCache templateCache;
+	private final LiqpModelAdapter modelAdapter = new LiqpModelAdapter();
+	private RenderBuffers renderBuffers;
+
+	public LiqpViewResolver() {
 		this.setViewClass(this.requiredViewClass());
 
-		Filter.registerFilter(new Filter("i18n") {
+		// Only the templates of this resolver see the i18n filter, it is not registered globally
+		Map<String, Filter> filters = new HashMap<>(Filter.getFilters());
+		filters.put("i18n", new Filter("i18n") {
 			@Override
-			public Object apply(Object value, Object... params) {
-				return messageSource.getMessage(value.toString(), null, Locale.ENGLISH);
+			public Object apply(Object value, TemplateContext context, Object... params) {
+				Object messages = context.get(MESSAGES_VARIABLE);
+				return messages instanceof i18nLayout ? ((i18nLayout) messages).message(value.toString()) : value;
 			}
 		});
+		this.templateCache = new LiqpTemplateCache(filters);
+	}
+
+	public void setRenderBuffers(RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
 	}
 
 	@Override
 	protected Class<?> requiredViewClass() {
 		return LiqpView.class;
 	}
+
+	@Override
+	protected AbstractUrlBasedView buildView(String viewName) throws Exception {
+		LiqpView view = (LiqpView) super.buildView(viewName);
+		view.setTemplateCache(templateCache);
+		view.setModelAdapter(modelAdapter);
+		view.setRenderBuffers(renderBuffers);
+
+		return view;
+	}
+
+	@Override
+	public void clearCache() {
+		super.clearCache();
+		templateCache.clear();
+	}
 }
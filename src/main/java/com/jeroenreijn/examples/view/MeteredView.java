@@ -0,0 +1,148 @@
+package com.jeroenreijn.examples.view;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.web.servlet.View;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Renders the view of an engine and records how long that took, how many bytes were written and whether it failed.
+ * The bytes are counted on the output stream; characters written through the writer are encoded into that stream
+ * with the character encoding of the response, as the container would do.
+ */
+class MeteredView implements View {
+	private final View delegate;
+	private final Timer renderTimer;
+	private final DistributionSummary responseBytes;
+	private final Counter renderErrors;
+
+	MeteredView(View delegate, Timer renderTimer, DistributionSummary responseBytes, Counter renderErrors) {
+		this.delegate = delegate;
+		this.renderTimer = renderTimer;
+		this.responseBytes = responseBytes;
+		this.renderErrors = renderErrors;
+	}
+
+	@Override
+	public String getContentType() {
+		return delegate.getContentType();
+	}
+
+	@Override
+	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		CountingResponse countingResponse = new CountingResponse(response);
+		long start = System.nanoTime();
+		try {
+			delegate.render(model, request, countingResponse);
+			countingResponse.finish();
+		} catch (Throwable e) {
+			renderErrors.increment();
+			throw e;
+		} finally {
+			renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		responseBytes.record(countingResponse.byteCount);
+	}
+
+	private static class CountingResponse extends HttpServletResponseWrapper {
+		private long byteCount;
+		private boolean finishing;
+		private ServletOutputStream outputStream;
+		private PrintWriter writer;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (outputStream == null) {
+				outputStream = new CountingOutputStream(super.getOutputStream());
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+			}
+			return writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			super.flushBuffer();
+		}
+
+		/**
+		 * Writes the characters still buffered by the writer to the stream, without flushing the response, so the
+		 * container can still send a content length for a page that fits its buffer.
+		 */
+		void finish() {
+			if (writer != null) {
+				finishing = true;
+				writer.flush();
+			}
+		}
+
+		private class CountingOutputStream extends ServletOutputStream {
+			private final ServletOutputStream out;
+
+			CountingOutputStream(ServletOutputStream out) {
+				this.out = out;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				byteCount++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				byteCount += len;
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (!finishing) {
+					out.flush();
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				out.close();
+			}
+
+			@Override
+			public boolean isReady() {
+				return out.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				out.setWriteListener(writeListener);
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.jeroenreijn.examples.view;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
+import org.springframework.web.servlet.view.ViewResolverComposite;
+
+import com.jeroenreijn.examples.configuration.Engines;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Wraps every {@link ViewResolver} bean, so the time to resolve and render views, the bytes they write and their
+ * errors are recorded per engine. The {@code engine} tag is the name of {@code engines.enabled}, found from the name
+ * of the bean by {@link Engines#ofViewResolver(String)}: {@code freeMarkerViewResolver} becomes {@code freemarker}.
+ * Resolvers of no engine are tagged with their bean name. The resolvers are proxied by subclassing, so they keep
+ * their type. Resolvers that only delegate to
+ * the other resolvers are left alone, their views are already counted.
+ *
+ * Meters:
+ * <ul>
+ * <li>{@code templates.resolve}, timer tagged with {@code engine} and {@code outcome} (resolved or unresolved)</li>
+ * <li>{@code templates.render}, timer tagged with {@code engine}, with a percentile histogram</li>
+ * <li>{@code templates.response}, the bytes written per render, tagged with {@code engine}</li>
+ * <li>{@code templates.errors}, counter tagged with {@code engine} and {@code phase} (resolve or render)</li>
+ * </ul>
+ */
+public class MeteredViewResolverPostProcessor implements BeanPostProcessor {
+	private static final Log logger = LogFactory.getLog(MeteredViewResolverPostProcessor.class);
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public MeteredViewResolverPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!(bean instanceof ViewResolver) || bean instanceof ViewResolverComposite
+				|| bean instanceof ContentNegotiatingViewResolver || bean instanceof SuffixDispatchingViewResolver) {
+			return bean;
+		}
+
+		if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+			// Already proxied, for instance to minify its views, the meters go around the other advice
+			((Advised) bean).addAdvice(0, new ResolveInterceptor(engine(beanName)));
+			return bean;
+		}
+
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(new ResolveInterceptor(engine(beanName)));
+		try {
+			return proxyFactory.getProxy(bean.getClass().getClassLoader());
+		} catch (AopConfigException e) {
+			logger.warn("Views of '" + beanName + "' are not metered: " + e.getMessage());
+			return bean;
+		}
+	}
+
+	static String engine(String beanName) {
+		String engine = Engines.ofViewResolver(beanName);
+		return engine != null ? engine : beanName;
+	}
+
+	/**
+	 * The meters of one engine. They are registered on first use, the registry is not available yet while the view
+	 * resolvers are created.
+	 */
+	private static class EngineMeters {
+		private final Timer resolved;
+		private final Timer unresolved;
+		private final Counter resolveErrors;
+		private final Timer render;
+		private final DistributionSummary responseBytes;
+		private final Counter renderErrors;
+
+		EngineMeters(MeterRegistry registry, String engine) {
+			this.resolved = Timer.builder("templates.resolve").tag("engine", engine).tag("outcome", "resolved")
+					.register(registry);
+			this.unresolved = Timer.builder("templates.resolve").tag("engine", engine).tag("outcome", "unresolved")
+					.register(registry);
+			this.resolveErrors = Counter.builder("templates.errors").tag("engine", engine).tag("phase", "resolve")
+					.register(registry);
+			this.render = Timer.builder("templates.render").tag("engine", engine).publishPercentileHistogram()
+					.register(registry);
+			this.responseBytes = DistributionSummary.builder("templates.response").baseUnit("bytes")
+					.tag("engine", engine).register(registry);
+			this.renderErrors = Counter.builder("templates.errors").tag("engine", engine).tag("phase", "render")
+					.register(registry);
+		}
+	}
+
+	private class ResolveInterceptor implements MethodInterceptor {
+		private final String engine;
+		private volatile EngineMeters meters;
+
+		ResolveInterceptor(String engine) {
+			this.engine = engine;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			if (!"resolveViewName".equals(invocation.getMethod().getName())) {
+				return invocation.proceed();
+			}
+
+			EngineMeters meters = meters();
+			long start = System.nanoTime();
+			View view;
+			try {
+				view = (View) invocation.proceed();
+			} catch (Throwable e) {
+				meters.resolveErrors.increment();
+				throw e;
+			}
+			(view != null ? meters.resolved : meters.unresolved).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+
+			return view == null ? null
+					: new MeteredView(view, meters.render, meters.responseBytes, meters.renderErrors);
+		}
+
+		private EngineMeters meters() {
+			EngineMeters current = meters;
+			if (current == null) {
+				current = new EngineMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), engine);
+				meters = current;
+			}
+			return current;
+		}
+	}
+}
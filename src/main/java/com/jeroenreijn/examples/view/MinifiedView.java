@@ -0,0 +1,177 @@
+package com.jeroenreijn.examples.view;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.web.servlet.View;
+
+/**
+ * Renders the view of an engine that has no option to leave out whitespace, and collapses the whitespace of the
+ * page on its way to the response, see {@link WhitespaceCollapser}. The page is written as it is produced. A content
+ * length set by the view is ignored, it counts the bytes before they were collapsed.
+ */
+class MinifiedView implements View {
+	private final View delegate;
+
+	MinifiedView(View delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public String getContentType() {
+		return delegate.getContentType();
+	}
+
+	@Override
+	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		MinifyingResponse minifyingResponse = new MinifyingResponse(response);
+		delegate.render(model, request, minifyingResponse);
+		minifyingResponse.flush();
+	}
+
+	private static class MinifyingResponse extends HttpServletResponseWrapper {
+		private final WhitespaceCollapser collapser = new WhitespaceCollapser();
+		private ServletOutputStream outputStream;
+		private PrintWriter writer;
+
+		MinifyingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (outputStream == null) {
+				outputStream = new MinifyingOutputStream(super.getOutputStream());
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(new MinifyingWriter(super.getWriter()));
+			}
+			return writer;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			// The page gets shorter
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			// The page gets shorter
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (!"Content-Length".equalsIgnoreCase(name)) {
+				super.setHeader(name, value);
+			}
+		}
+
+		void flush() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (outputStream != null) {
+				outputStream.flush();
+			}
+		}
+
+		private class MinifyingOutputStream extends ServletOutputStream {
+			private final ServletOutputStream out;
+			private byte[] buffer = new byte[0];
+
+			MinifyingOutputStream(ServletOutputStream out) {
+				this.out = out;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (buffer.length < len + 1) {
+					buffer = new byte[Math.max(len + 1, 1024)];
+				}
+				int n = collapser.collapse(b, off, len, buffer);
+				if (n > 0) {
+					out.write(buffer, 0, n);
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				out.flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				out.close();
+			}
+
+			@Override
+			public boolean isReady() {
+				return out.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				out.setWriteListener(writeListener);
+			}
+		}
+
+		private class MinifyingWriter extends Writer {
+			private final Writer out;
+			private char[] buffer = new char[0];
+			private char[] chars = new char[0];
+
+			MinifyingWriter(Writer out) {
+				this.out = out;
+			}
+
+			@Override
+			public void write(char[] cbuf, int off, int len) throws IOException {
+				if (buffer.length < len + 1) {
+					buffer = new char[Math.max(len + 1, 1024)];
+				}
+				int n = collapser.collapse(cbuf, off, len, buffer);
+				if (n > 0) {
+					out.write(buffer, 0, n);
+				}
+			}
+
+			@Override
+			public void write(String str, int off, int len) throws IOException {
+				if (chars.length < len) {
+					chars = new char[Math.max(len, 1024)];
+				}
+				str.getChars(off, off + len, chars, 0);
+				write(chars, 0, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				out.flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				out.close();
+			}
+		}
+	}
+}
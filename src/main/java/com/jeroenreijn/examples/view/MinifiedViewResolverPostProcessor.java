@@ -0,0 +1,74 @@
+package com.jeroenreijn.examples.view;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
+import org.springframework.web.servlet.view.ViewResolverComposite;
+
+/**
+ * Wraps the {@link ViewResolver} beans of the engines that cannot leave out whitespace themselves, so their views
+ * collapse it while they write, see {@link MinifiedView}. Engines are named after their bean like the metered ones,
+ * {@code mustacheViewResolver} becomes {@code mustache}. When the resolver is already proxied, for instance by
+ * {@link MeteredViewResolverPostProcessor}, the wrapping is added to that proxy, closest to the resolver, so the
+ * metered bytes are the collapsed ones.
+ */
+public class MinifiedViewResolverPostProcessor implements BeanPostProcessor {
+	private static final Log logger = LogFactory.getLog(MinifiedViewResolverPostProcessor.class);
+
+	private final Set<String> minifyingEngines;
+
+	/**
+	 * @param minifyingEngines the engines that are configured to leave out whitespace themselves
+	 */
+	public MinifiedViewResolverPostProcessor(Set<String> minifyingEngines) {
+		this.minifyingEngines = Collections.unmodifiableSet(new HashSet<>(minifyingEngines));
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!(bean instanceof ViewResolver) || bean instanceof ViewResolverComposite
+				|| bean instanceof ContentNegotiatingViewResolver || bean instanceof SuffixDispatchingViewResolver
+				|| minifyingEngines.contains(MeteredViewResolverPostProcessor.engine(beanName))) {
+			return bean;
+		}
+
+		if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+			((Advised) bean).addAdvice(new ResolveInterceptor());
+			return bean;
+		}
+
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(new ResolveInterceptor());
+		try {
+			return proxyFactory.getProxy(bean.getClass().getClassLoader());
+		} catch (AopConfigException e) {
+			logger.warn("Views of '" + beanName + "' are not minified: " + e.getMessage());
+			return bean;
+		}
+	}
+
+	private static class ResolveInterceptor implements MethodInterceptor {
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Object result = invocation.proceed();
+			if (!"resolveViewName".equals(invocation.getMethod().getName()) || result == null) {
+				return result;
+			}
+
+			return new MinifiedView((View) result);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.jeroenreijn.examples.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A growable byte buffer a view renders its page into, taken from and given back to a {@link RenderBuffers} pool.
+ * Characters written through {@link #getWriter()} are encoded to UTF-8 straight into the buffer, so the page never
+ * exists as a String or a second byte array. Once the page is complete, {@link #writeTo(HttpServletResponse)} sends
+ * it with its exact length in bytes.
+ */
+final class RenderBuffer extends OutputStream {
+	private final RenderBuffers.Pool pool;
+	private final Utf8Writer writer = new Utf8Writer();
+	private byte[] bytes;
+	private int count;
+
+	RenderBuffer(final RenderBuffers.Pool pool, final int capacity) {
+		this.pool = pool;
+		this.bytes = new byte[capacity];
+	}
+
+	/**
+	 * A writer encoding to UTF-8 into this buffer. Unpaired surrogates are written as {@code '?'}, like
+	 * {@link String#getBytes(java.nio.charset.Charset)} does.
+	 */
+	Writer getWriter() {
+		return writer;
+	}
+
+	int size() {
+		return count;
+	}
+
+	int capacity() {
+		return bytes.length;
+	}
+
+	@Override
+	public void write(final int b) {
+		ensureCapacity(count + 1);
+		bytes[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		ensureCapacity(count + len);
+		System.arraycopy(b, off, bytes, count, len);
+		count += len;
+	}
+
+	/**
+	 * Sets the content length of the response to the bytes in this buffer and writes them.
+	 */
+	void writeTo(final HttpServletResponse response) throws IOException {
+		writer.flushPending();
+		response.setContentLength(count);
+
+		OutputStream out = response.getOutputStream();
+		out.write(bytes, 0, count);
+		out.flush();
+	}
+
+	/**
+	 * Hands the buffer back to its pool, it must not be used afterwards.
+	 */
+	void release() {
+		pool.release(this);
+	}
+
+	void reset() {
+		count = 0;
+		writer.highSurrogate = 0;
+	}
+
+	private void ensureCapacity(final int minCapacity) {
+		if (minCapacity > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(minCapacity, bytes.length + (bytes.length >> 1)));
+		}
+	}
+
+	private class Utf8Writer extends Writer {
+		/**
+		 * The first half of a surrogate pair whose second half has not been written yet, or 0.
+		 */
+		private char highSurrogate;
+
+		@Override
+		public void write(final int c) {
+			ensureCapacity(count + 4);
+			encode((char) c);
+		}
+
+		@Override
+		public void write(final char[] cbuf, int off, final int len) {
+			int end = off + len;
+			while (off < end) {
+				// A char takes at most 3 bytes, the one completing a pair from an earlier write takes 4
+				int n = Math.min(end - off, (bytes.length - count - 1) / 3);
+				if (n <= 0) {
+					ensureCapacity(count + 4);
+					continue;
+				}
+				for (int stop = off + n; off < stop; off++) {
+					encode(cbuf[off]);
+				}
+			}
+		}
+
+		@Override
+		public void write(final String str, final int off, final int len) {
+			write((CharSequence) str, off, off + len);
+		}
+
+		@Override
+		public Writer append(final CharSequence csq) {
+			CharSequence chars = csq == null ? "null" : csq;
+			write(chars, 0, chars.length());
+			return this;
+		}
+
+		@Override
+		public Writer append(final CharSequence csq, final int start, final int end) {
+			write(csq == null ? "null" : csq, start, end);
+			return this;
+		}
+
+		@Override
+		public Writer append(final char c) {
+			write(c);
+			return this;
+		}
+
+		private void write(final CharSequence chars, int off, final int end) {
+			while (off < end) {
+				int n = Math.min(end - off, (bytes.length - count - 1) / 3);
+				if (n <= 0) {
+					ensureCapacity(count + 4);
+					continue;
+				}
+				for (int stop = off + n; off < stop; off++) {
+					encode(chars.charAt(off));
+				}
+			}
+		}
+
+		private void encode(final char c) {
+			if (highSurrogate != 0) {
+				encodeAfterHighSurrogate(c);
+			} else if (c < 0x80) {
+				bytes[count++] = (byte) c;
+			} else if (c < 0x800) {
+				bytes[count++] = (byte) (0xc0 | (c >> 6));
+				bytes[count++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isHighSurrogate(c)) {
+				highSurrogate = c;
+			} else if (Character.isLowSurrogate(c)) {
+				bytes[count++] = '?';
+			} else {
+				bytes[count++] = (byte) (0xe0 | (c >> 12));
+				bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				bytes[count++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+
+		private void encodeAfterHighSurrogate(final char c) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (!Character.isLowSurrogate(c)) {
+				bytes[count++] = '?';
+				encode(c);
+				return;
+			}
+
+			int codePoint = Character.toCodePoint(high, c);
+			bytes[count++] = (byte) (0xf0 | (codePoint >> 18));
+			bytes[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+			bytes[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+			bytes[count++] = (byte) (0x80 | (codePoint & 0x3f));
+		}
+
+		void flushPending() {
+			if (highSurrogate != 0) {
+				highSurrogate = 0;
+				RenderBuffer.this.write('?');
+			}
+		}
+
+		@Override
+		public void flush() {
+			// Nothing is sent before writeTo
+		}
+
+		@Override
+		public void close() {
+			// The buffer is reused, see release
+		}
+	}
+}
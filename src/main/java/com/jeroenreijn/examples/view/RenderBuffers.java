@@ -0,0 +1,108 @@
+package com.jeroenreijn.examples.view;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pools of {@link RenderBuffer}s, one per view, for the views that render a complete page before they write it.
+ * Every pool keeps a moving average of the pages of its view, and new buffers are made a quarter larger than that,
+ * so a page rarely has to grow its buffer. A buffer that did grow far beyond the average, for a page that was much
+ * larger than usual, is dropped when it comes back instead of being kept around.
+ */
+public class RenderBuffers {
+	static final int MIN_CAPACITY = 1024;
+
+	private final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<>();
+	private final LongAdder allocated = new LongAdder();
+	private final LongAdder reused = new LongAdder();
+	private int maxPooled = 16;
+
+	/**
+	 * The number of idle buffers kept per view, 16 by default. More are allocated when more requests render the same
+	 * view at the same time, but they are not kept.
+	 */
+	public void setMaxPooled(final int maxPooled) {
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * Takes a buffer from the pool of the given view, or allocates one, see {@link #getExpectedSize(String)}.
+	 */
+	RenderBuffer acquire(final String view) {
+		Pool pool = pools.get(view);
+		if (pool == null) {
+			pool = pools.computeIfAbsent(view, v -> new Pool());
+		}
+		return pool.acquire();
+	}
+
+	/**
+	 * The moving average of the pages of the given view in bytes, 0 before its first page.
+	 */
+	public int getExpectedSize(final String view) {
+		Pool pool = pools.get(view);
+		return pool == null ? 0 : pool.averageSize;
+	}
+
+	/**
+	 * The buffers allocated because the pool of their view was empty.
+	 */
+	public long getAllocated() {
+		return allocated.sum();
+	}
+
+	/**
+	 * The buffers taken from a pool.
+	 */
+	public long getReused() {
+		return reused.sum();
+	}
+
+	class Pool {
+		private final Deque<RenderBuffer> idle = new ConcurrentLinkedDeque<>();
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		/**
+		 * Updated without synchronization, a lost update only makes the average a little less recent.
+		 */
+		private volatile int averageSize;
+
+		RenderBuffer acquire() {
+			RenderBuffer buffer = idle.pollFirst();
+			if (buffer != null) {
+				idleCount.decrementAndGet();
+				reused.increment();
+				return buffer;
+			}
+
+			allocated.increment();
+			return new RenderBuffer(this, capacity());
+		}
+
+		void release(final RenderBuffer buffer) {
+			int size = buffer.size();
+			int average = averageSize;
+			averageSize = average == 0 ? size : average + (size - average) / 8;
+			buffer.reset();
+
+			if (buffer.capacity() > 2 * capacity()) {
+				return;
+			}
+			if (idleCount.incrementAndGet() > maxPooled) {
+				idleCount.decrementAndGet();
+				return;
+			}
+			// Last in, first out, so the buffers in use stay few and warm
+			idle.offerFirst(buffer);
+		}
+
+		private int capacity() {
+			int average = averageSize;
+			return Math.max(MIN_CAPACITY, average + (average >> 2));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.jeroenreijn.examples.view;
+
+import java.io.IOException;
+
+import com.fizzed.rocker.BindableRockerModel;
+import com.fizzed.rocker.RenderingException;
+import com.fizzed.rocker.RockerContent;
+import com.fizzed.rocker.RockerOutput;
+import com.fizzed.rocker.RockerOutputFactory;
+import com.jeroenreijn.examples.model.EncodedText;
+
+/**
+ * Lets Rocker templates write bytes that are already encoded, such as those of an {@link EncodedText}, straight to
+ * the output of the {@link RockerView} rendering them: {@code @RockerBytes.html(presentation.getTitleText())}.
+ */
+public final class RockerBytes {
+	private static final ThreadLocal<PreEncodedOutput> OUTPUT = new ThreadLocal<>();
+
+	private RockerBytes() {
+	}
+
+	/**
+	 * Writes the escaped text.
+	 */
+	public static RockerContent html(EncodedText text) {
+		return of(text.getHtmlUtf8());
+	}
+
+	/**
+	 * Writes the text as it is, for text that is HTML already.
+	 */
+	public static RockerContent raw(EncodedText text) {
+		return of(text.getUtf8());
+	}
+
+	/**
+	 * Writes UTF-8 encoded bytes.
+	 */
+	public static RockerContent of(byte[] utf8) {
+		return () -> {
+			PreEncodedOutput output = OUTPUT.get();
+			if (output == null) {
+				throw new RenderingException("Pre-encoded bytes can only be written by a RockerView");
+			}
+			output.writePreEncoded(utf8);
+		};
+	}
+
+	/**
+	 * Renders the template, making the created output available to the pre-encoded contents while it renders.
+	 */
+	static <T extends RockerOutput & PreEncodedOutput> T render(BindableRockerModel template,
+			RockerOutputFactory<T> factory) {
+		try {
+			return template.render((contentType, charsetName) -> {
+				T output = factory.create(contentType, charsetName);
+				OUTPUT.set(output);
+				return output;
+			});
+		} finally {
+			OUTPUT.remove();
+		}
+	}
+
+	/**
+	 * An output that accepts UTF-8 encoded bytes besides the bytes of the static template sections.
+	 */
+	interface PreEncodedOutput {
+		void writePreEncoded(byte[] utf8) throws IOException;
+	}
+}
@@ -0,0 +1,53 @@
+package com.jeroenreijn.examples.view;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Counts the bytes written by the Rocker views. Static bytes are the plain text sections of the templates, which
+ * Rocker encodes once when the template class is loaded; dynamic bytes are the values of the model, including the
+ * pre-encoded text written through {@link RockerBytes}. Exported as {@code templates.rocker.bytes}, tagged with the
+ * section, and {@code templates.rocker.static.share}.
+ */
+public class RockerOutputStatistics implements MeterBinder {
+	private final LongAdder staticBytes = new LongAdder();
+	private final LongAdder dynamicBytes = new LongAdder();
+
+	void record(final long staticByteLength, final long byteLength) {
+		staticBytes.add(staticByteLength);
+		dynamicBytes.add(byteLength - staticByteLength);
+	}
+
+	public long getStaticBytes() {
+		return staticBytes.sum();
+	}
+
+	public long getDynamicBytes() {
+		return dynamicBytes.sum();
+	}
+
+	/**
+	 * The share of all written bytes that came from the static template sections, between 0 and 1.
+	 */
+	public double getStaticShare() {
+		long staticSum = getStaticBytes();
+		long total = staticSum + getDynamicBytes();
+
+		return total == 0 ? 0.0 : (double) staticSum / total;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("templates.rocker.bytes", this, RockerOutputStatistics::getStaticBytes)
+				.baseUnit("bytes").tag("section", "static").register(registry);
+		FunctionCounter.builder("templates.rocker.bytes", this, RockerOutputStatistics::getDynamicBytes)
+				.baseUnit("bytes").tag("section", "dynamic").register(registry);
+		Gauge.builder("templates.rocker.static.share", this, RockerOutputStatistics::getStaticShare)
+				.description("Share of the bytes written by the Rocker views that came from static template text")
+				.register(registry);
+	}
+}
@@ -1,6 +1,8 @@
 package com.jeroenreijn.examples.view;
 
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -8,26 +10,126 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.web.servlet.view.AbstractTemplateView;
 
+import com.fizzed.rocker.BindableRockerModel;
+import com.fizzed.rocker.ContentType;
 import com.fizzed.rocker.Rocker;
+import com.fizzed.rocker.runtime.ArrayOfByteArraysOutput;
+import com.fizzed.rocker.runtime.OutputStreamOutput;
 
+/**
+ * Renders the Rocker templates into byte chunks. The plain text sections of the templates are already encoded to
+ * UTF-8 by the rocker-maven-plugin, so they are passed on to the response without being turned into characters.
+ */
 public class RockerView extends AbstractTemplateView {
+	private boolean streaming;
+	private RockerOutputStatistics statistics = new RockerOutputStatistics();
+	private RenderBuffers renderBuffers;
+
+	/**
+	 * Write the page to the response while it is produced instead of rendering it to a String first.
+	 */
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public void setStatistics(final RockerOutputStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Render the page into a pooled buffer instead of a list of byte chunks. Not used when {@code null}.
+	 */
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
 
 	@Override
 	protected void renderMergedTemplateModel(Map<String, Object> model, HttpServletRequest request,
 			HttpServletResponse response) throws Exception {
-		String html = Rocker.template("index.rocker.html")
+		BindableRockerModel template = Rocker.template("index.rocker.html")
 				.bind("presentations", model.get("presentations"))
 				.bind("i18n", model.get("i18n"))
-				.render()
-				.toString();
+				.bind("fragments", model.get("fragments"));
 
-		response.setContentLength(html.length());
 		response.setContentType("text/html");
 		response.setCharacterEncoding("UTF-8");
 
-		try (PrintWriter writer = response.getWriter()) {
-			writer.write(html);
-			writer.flush();
+		if (streaming) {
+			OutputStream out = response.getOutputStream();
+			StreamOutput output = RockerBytes.render(template,
+					(contentType, charsetName) -> new StreamOutput(contentType, out, charsetName));
+			statistics.record(output.staticByteLength, output.getByteLength());
+			return;
+		}
+
+		if (renderBuffers != null) {
+			RenderBuffer buffer = renderBuffers.acquire(getUrl());
+			try {
+				StreamOutput output = RockerBytes.render(template,
+						(contentType, charsetName) -> new StreamOutput(contentType, buffer, charsetName));
+				statistics.record(output.staticByteLength, output.getByteLength());
+				buffer.writeTo(response);
+			} finally {
+				buffer.release();
+			}
+			return;
+		}
+
+		ByteChunksOutput output = RockerBytes.render(template, ByteChunksOutput::new);
+		statistics.record(output.staticByteLength, output.getByteLength());
+		response.setContentLength(output.getByteLength());
+
+		try (OutputStream out = response.getOutputStream()) {
+			for (byte[] chunk : output.getArrays()) {
+				out.write(chunk);
+			}
+			out.flush();
+		}
+	}
+
+	private static class ByteChunksOutput extends ArrayOfByteArraysOutput implements RockerBytes.PreEncodedOutput {
+		private int staticByteLength;
+
+		ByteChunksOutput(final ContentType contentType, final String charsetName) {
+			super(contentType, charsetName);
+		}
+
+		@Override
+		public ArrayOfByteArraysOutput w(final byte[] bytes) throws IOException {
+			staticByteLength += bytes.length;
+			return super.w(bytes);
+		}
+
+		@Override
+		public void writePreEncoded(final byte[] utf8) throws IOException {
+			if (StandardCharsets.UTF_8.equals(charset)) {
+				super.w(utf8);
+			} else {
+				super.w(new String(utf8, StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private static class StreamOutput extends OutputStreamOutput implements RockerBytes.PreEncodedOutput {
+		private int staticByteLength;
+
+		StreamOutput(final ContentType contentType, final OutputStream stream, final String charsetName) {
+			super(contentType, stream, charsetName);
+		}
+
+		@Override
+		public OutputStreamOutput w(final byte[] bytes) throws IOException {
+			staticByteLength += bytes.length;
+			return super.w(bytes);
+		}
+
+		@Override
+		public void writePreEncoded(final byte[] utf8) throws IOException {
+			if (StandardCharsets.UTF_8.equals(charset)) {
+				super.w(utf8);
+			} else {
+				super.w(new String(utf8, StandardCharsets.UTF_8));
+			}
 		}
 	}
 
@@ -1,14 +1,44 @@
 package com.jeroenreijn.examples.view;
 
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
 public class RockerViewResolver extends AbstractTemplateViewResolver {
+	private boolean streaming;
+	private final RockerOutputStatistics outputStatistics = new RockerOutputStatistics();
+	private RenderBuffers renderBuffers;
+
 	public RockerViewResolver() {
 		this.setViewClass(this.requiredViewClass());
 	}
 
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
+	/**
+	 * The static and dynamic bytes written by all views of this resolver.
+	 */
+	public RockerOutputStatistics getOutputStatistics() {
+		return outputStatistics;
+	}
+
 	@Override
 	protected Class<?> requiredViewClass() {
 		return RockerView.class;
 	}
+
+	@Override
+	protected AbstractUrlBasedView buildView(final String viewName) throws Exception {
+		RockerView view = (RockerView) super.buildView(viewName);
+		view.setStreaming(streaming);
+		view.setStatistics(outputStatistics);
+		view.setRenderBuffers(renderBuffers);
+
+		return view;
+	}
 }
@@ -0,0 +1,125 @@
+package com.jeroenreijn.examples.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+/**
+ * Resolves view names such as {@code index-rocker} with the resolver of the engine they belong to, instead of asking
+ * every resolver in turn. The first time a suffix ({@code -rocker}) is seen, the other resolvers are asked in their
+ * usual order and the one that answers becomes the owner of the suffix; later names with that suffix go straight
+ * to it. Names that no resolver knows, such as {@code index-unknown}, are remembered so the chain is not walked for
+ * them again. Names with a prefix such as {@code forward:} always walk the chain.
+ */
+public class SuffixDispatchingViewResolver implements ViewResolver, Ordered, ApplicationContextAware,
+		SmartInitializingSingleton {
+	/**
+	 * Bounds the unresolved names, which come from the request path.
+	 */
+	private static final int MAX_UNRESOLVED = 1024;
+
+	private ApplicationContext applicationContext;
+	private List<ViewResolver> viewResolvers = Collections.emptyList();
+
+	private final Map<String, ViewResolver> owners = new ConcurrentHashMap<>();
+	private final Set<String> unresolved = ConcurrentHashMap.newKeySet();
+
+	private boolean cacheUnresolved = true;
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+
+	/**
+	 * Whether names that no resolver knows are remembered. Turn off when templates may be added while running.
+	 */
+	public void setCacheUnresolved(boolean cacheUnresolved) {
+		this.cacheUnresolved = cacheUnresolved;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		List<ViewResolver> resolvers = new ArrayList<>(BeanFactoryUtils
+				.beansOfTypeIncludingAncestors(applicationContext, ViewResolver.class, true, false).values());
+		resolvers.removeIf(resolver -> resolver instanceof SuffixDispatchingViewResolver);
+		AnnotationAwareOrderComparator.sort(resolvers);
+
+		this.viewResolvers = Collections.unmodifiableList(resolvers);
+	}
+
+	/**
+	 * The resolvers this one dispatches to, in the order they are asked for an unknown suffix.
+	 */
+	public List<ViewResolver> getViewResolvers() {
+		return viewResolvers;
+	}
+
+	@Override
+	public View resolveViewName(String viewName, Locale locale) throws Exception {
+		String suffix = suffix(viewName);
+		ViewResolver owner = suffix != null ? owners.get(suffix) : null;
+		if (owner != null) {
+			View view = owner.resolveViewName(viewName, locale);
+			if (view != null) {
+				return view;
+			}
+		}
+
+		String key = viewName + '_' + locale;
+		if (unresolved.contains(key)) {
+			return null;
+		}
+		for (ViewResolver viewResolver : viewResolvers) {
+			if (viewResolver == owner) {
+				continue;
+			}
+			View view = viewResolver.resolveViewName(viewName, locale);
+			if (view != null) {
+				if (suffix != null) {
+					owners.putIfAbsent(suffix, viewResolver);
+				}
+				return view;
+			}
+		}
+
+		if (cacheUnresolved) {
+			if (unresolved.size() >= MAX_UNRESOLVED) {
+				unresolved.clear();
+			}
+			unresolved.add(key);
+		}
+		return null;
+	}
+
+	private static String suffix(String viewName) {
+		if (viewName.indexOf(':') >= 0) {
+			return null;
+		}
+		int dash = viewName.lastIndexOf('-');
+		return dash >= 0 ? viewName.substring(dash) : null;
+	}
+
+	public void clearCache() {
+		owners.clear();
+		unresolved.clear();
+	}
+}
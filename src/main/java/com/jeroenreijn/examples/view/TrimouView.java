@@ -12,6 +12,7 @@ import org.trimou.Mustache;
 
 public class TrimouView extends AbstractTemplateView {
 	private Mustache mustache;
+	private RenderBuffers renderBuffers;
 
 	protected TrimouView() {
 	}
@@ -24,6 +25,14 @@ public class TrimouView extends AbstractTemplateView {
 		this.mustache = mustache;
 	}
 
+	/**
+	 * Render the page into a pooled buffer and send it with its length, instead of writing it to the response as it
+	 * is produced. Not used when {@code null}.
+	 */
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
 	@Override
 	protected void renderMergedTemplateModel(final Map<String, Object> model, final HttpServletRequest request,
 			final HttpServletResponse response) throws Exception {
@@ -31,6 +40,17 @@ public class TrimouView extends AbstractTemplateView {
 
 		response.setCharacterEncoding("UTF-8");
 
+		if (renderBuffers != null) {
+			RenderBuffer buffer = renderBuffers.acquire(getUrl());
+			try {
+				mustache.render(buffer.getWriter(), model);
+				buffer.writeTo(response);
+			} finally {
+				buffer.release();
+			}
+			return;
+		}
+
 		try (PrintWriter writer = response.getWriter()) {
 			mustache.render(writer, model);
 		}
@@ -2,7 +2,6 @@ package com.jeroenreijn.examples.view;
 
 import java.util.Locale;
 
-import org.springframework.context.MessageSource;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
 import org.trimou.Mustache;
@@ -10,20 +9,26 @@ import org.trimou.engine.MustacheEngine;
 import org.trimou.engine.MustacheEngineBuilder;
 
 import com.jeroenreijn.examples.model.SpringMessageSourceHelper;
+import com.jeroenreijn.examples.services.MessagesService;
 
 public class TrimouViewResolver extends AbstractTemplateViewResolver {
 	private TrimouSpringResourceTemplateLocator loader = new TrimouSpringResourceTemplateLocator();
 	private MustacheEngine engine;
+	private RenderBuffers renderBuffers;
 
-	public TrimouViewResolver(MessageSource messageSource) {
+	public TrimouViewResolver(MessagesService messagesService) {
 		this.setViewClass(this.requiredViewClass());
 
 		this.engine = MustacheEngineBuilder.newBuilder()
 				.addTemplateLocator(loader)
-				.registerHelper("springMsg", new SpringMessageSourceHelper(messageSource))
+				.registerHelper("springMsg", new SpringMessageSourceHelper(messagesService))
 				.build();
 	}
 
+	public void setRenderBuffers(final RenderBuffers renderBuffers) {
+		this.renderBuffers = renderBuffers;
+	}
+
 	@Override
 	protected Class<?> requiredViewClass() {
 		return TrimouView.class;
@@ -47,6 +52,7 @@ public class TrimouViewResolver extends AbstractTemplateViewResolver {
 		if (mustache != null) {
 			TrimouView trimouView = (TrimouView) super.loadView(viewName, locale);
 			trimouView.setMustache(mustache);
+			trimouView.setRenderBuffers(renderBuffers);
 
 			return trimouView;
 		}
@@ -0,0 +1,211 @@
+package com.jeroenreijn.examples.view;
+
+/**
+ * Collapses the whitespace of an HTML page while it is written: every run of whitespace becomes one newline when it
+ * contained one, or one space otherwise, which renders the same. Whitespace at the start and at the end of the page
+ * is dropped. Attribute values and the content of {@code pre}, {@code textarea}, {@code script} and {@code style}
+ * elements are passed on as they are.
+ *
+ * Works on characters as well as on UTF-8 bytes, the bytes of a multi-byte character are never mistaken for ASCII.
+ * An instance keeps the state of one page and is not thread safe.
+ */
+final class WhitespaceCollapser {
+	private static final char[][] RAW_ELEMENTS = { "pre".toCharArray(), "textarea".toCharArray(),
+			"script".toCharArray(), "style".toCharArray() };
+	private static final int MAX_NAME = 8;
+
+	private static final int TEXT = 0;
+	private static final int TAG_OPEN = 1;
+	private static final int TAG_NAME = 2;
+	private static final int TAG = 3;
+	private static final int QUOTED = 4;
+	private static final int RAW = 5;
+
+	private int mode = TEXT;
+	private boolean started;
+	private int pending;
+
+	private final char[] name = new char[MAX_NAME];
+	private int nameLength;
+	private boolean closing;
+	private char[] rawElement;
+	private int quote;
+	private int rawEndMatched;
+
+	/**
+	 * Collapses {@code len} characters into {@code out}, which must hold at least {@code len + 1} of them.
+	 *
+	 * @return the number of characters written to {@code out}
+	 */
+	int collapse(char[] in, int off, int len, char[] out) {
+		int n = 0;
+		for (int i = off; i < off + len; i++) {
+			char c = in[i];
+			int before = accept(c);
+			if (before < 0) {
+				continue;
+			}
+			if (before > 0) {
+				out[n++] = (char) before;
+			}
+			out[n++] = c;
+		}
+		return n;
+	}
+
+	/**
+	 * Collapses {@code len} UTF-8 bytes into {@code out}, which must hold at least {@code len + 1} of them.
+	 *
+	 * @return the number of bytes written to {@code out}
+	 */
+	int collapse(byte[] in, int off, int len, byte[] out) {
+		int n = 0;
+		for (int i = off; i < off + len; i++) {
+			byte b = in[i];
+			int before = accept(b & 0xff);
+			if (before < 0) {
+				continue;
+			}
+			if (before > 0) {
+				out[n++] = (byte) before;
+			}
+			out[n++] = b;
+		}
+		return n;
+	}
+
+	/**
+	 * @return -1 to drop the character, the whitespace character to write before it, or 0 to only write it
+	 */
+	private int accept(int c) {
+		if (isWhitespace(c) && mode != QUOTED && mode != RAW) {
+			if (started) {
+				pending = c == '\n' || c == '\r' || pending == '\n' ? '\n' : ' ';
+			}
+			// Whitespace ends a tag name
+			if (mode == TAG_OPEN || mode == TAG_NAME) {
+				endName();
+			}
+			return -1;
+		}
+
+		int before = pending;
+		pending = 0;
+		started = true;
+		advance(c);
+
+		return before;
+	}
+
+	private void advance(int c) {
+		switch (mode) {
+		case TEXT:
+			if (c == '<') {
+				mode = TAG_OPEN;
+				nameLength = 0;
+				closing = false;
+			}
+			break;
+		case TAG_OPEN:
+			if (c == '/' && !closing) {
+				closing = true;
+				break;
+			}
+			mode = TAG_NAME;
+			// fall through
+		case TAG_NAME:
+			if (isNameChar(c)) {
+				if (nameLength < MAX_NAME) {
+					name[nameLength] = Character.toLowerCase((char) c);
+				}
+				nameLength++;
+				break;
+			}
+			endName();
+			if (mode == TAG) {
+				advanceTag(c);
+			}
+			break;
+		case TAG:
+			advanceTag(c);
+			break;
+		case QUOTED:
+			if (c == quote) {
+				mode = TAG;
+			}
+			break;
+		case RAW:
+			advanceRaw(c);
+			break;
+		default:
+			throw new IllegalStateException("Unknown mode " + mode);
+		}
+	}
+
+	private void endName() {
+		if (nameLength == 0) {
+			// Not a tag, for instance <!DOCTYPE or a comment
+			mode = TEXT;
+			return;
+		}
+		mode = TAG;
+		rawElement = closing ? null : rawElement(name, nameLength);
+	}
+
+	private void advanceTag(int c) {
+		if (c == '"' || c == '\'') {
+			quote = c;
+			mode = QUOTED;
+		} else if (c == '>') {
+			if (rawElement != null) {
+				mode = RAW;
+				rawEndMatched = 0;
+			} else {
+				mode = TEXT;
+			}
+		}
+	}
+
+	private void advanceRaw(int c) {
+		// Looks for the closing tag, </ followed by the name of the element
+		int expected = rawEndMatched == 0 ? '<' : rawEndMatched == 1 ? '/' : rawElement[rawEndMatched - 2];
+		if (Character.toLowerCase(c) == expected) {
+			rawEndMatched++;
+			if (rawEndMatched == rawElement.length + 2) {
+				mode = TAG;
+				rawElement = null;
+			}
+		} else {
+			rawEndMatched = c == '<' ? 1 : 0;
+		}
+	}
+
+	private static char[] rawElement(char[] name, int length) {
+		if (length > MAX_NAME) {
+			return null;
+		}
+		for (char[] element : RAW_ELEMENTS) {
+			if (element.length == length && regionMatches(element, name, length)) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	private static boolean regionMatches(char[] a, char[] b, int length) {
+		for (int i = 0; i < length; i++) {
+			if (a[i] != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+	}
+
+	private static boolean isNameChar(int c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-';
+	}
+}
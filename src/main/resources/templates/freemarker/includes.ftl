@@ -1,11 +1,15 @@
 [#ftl]
 [#macro head]
 <head>
+[#if fragments??]
+  ${fragments.head}
+[#else]
   <meta charset="UTF-8"/>
   <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
   <meta http-equiv="X-UA-Compatible" content="IE=Edge"/>
   <title>[@spring.message code="example.title"/] - Freemarker</title>
   <link rel="stylesheet" href="${springMacroRequestContext.getContextPath()}/webjars/bootstrap/4.3.1/css/bootstrap.min.css" media="screen" />
+[/#if]
 </head>
 [/#macro]
 
@@ -16,6 +20,10 @@
 [/#macro]
 
 [#macro scripts]
+[#if fragments??]
+${fragments.scripts}
+[#else]
 <script src="${springMacroRequestContext.getContextPath()}/webjars/jquery/3.1.1/jquery.min.js"></script>
 <script src="${springMacroRequestContext.getContextPath()}/webjars/bootstrap/4.3.1/js/bootstrap.min.js"></script>
+[/#if]
 [/#macro]
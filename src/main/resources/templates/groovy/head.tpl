@@ -1,6 +1,10 @@
-meta(charset: 'UTF8')
-meta(name: 'viewport', content: 'width=device-width, initial-scale=1.0')
-meta('http-equiv': 'X-UA-Compatible', 'content': 'IE=Edge')
-title(title)
+if (fragments) {
+  yieldUnescaped fragments.head
+} else {
+  meta(charset: 'UTF8')
+  meta(name: 'viewport', content: 'width=device-width, initial-scale=1.0')
+  meta('http-equiv': 'X-UA-Compatible', 'content': 'IE=Edge')
+  title(title)
 
-link(rel:'stylesheet', href:'/webjars/bootstrap/4.3.1/css/bootstrap.min.css', media: 'screen')
\ No newline at end of file
+  link(rel:'stylesheet', href:'/webjars/bootstrap/4.3.1/css/bootstrap.min.css', media: 'screen')
+}
\ No newline at end of file
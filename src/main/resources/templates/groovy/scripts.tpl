@@ -1,2 +1,6 @@
-script(src: '/webjars/jquery/3.1.1/jquery.min.js') {}
-script(src: '/webjars/bootstrap/4.3.1/js/bootstrap.min.js') {}
\ No newline at end of file
+if (fragments) {
+  yieldUnescaped fragments.scripts
+} else {
+  script(src: '/webjars/jquery/3.1.1/jquery.min.js') {}
+  script(src: '/webjars/bootstrap/4.3.1/js/bootstrap.min.js') {}
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the listing page of every engine with the GC profiler and compares the bytes allocated per render with
+ * the baseline in {@code src/test/resources/allocation-baseline.properties}. The run fails when an engine allocates
+ * more than {@code allocation.threshold} percent (10 by default) above its baseline. Run it with
+ * {@code -Dallocation.update=true} to write the measured values to the baseline instead.
+ *
+ * Templates are cached ({@code production}) and the metrics are off, so only the steady state of the engine itself
+ * is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationJMH {
+    private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"10", "1000"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        File baselineFile = new File(System.getProperty("allocation.baseline",
+                "src/test/resources/allocation-baseline.properties"));
+        double threshold = Double.parseDouble(System.getProperty("allocation.threshold", "10"));
+        boolean update = Boolean.getBoolean("allocation.update");
+
+        Options opt = ViewRenderer.everyEngine(AllocationJMH.class)
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+
+        Collection<RunResult> results = new Runner(opt).run();
+
+        Map<String, Double> measured = new TreeMap<>();
+        for (RunResult result : results) {
+            String key = result.getParams().getParam("template") + "." + result.getParams().getParam("datasetSize");
+            measured.put(key, allocatedBytes(result));
+        }
+
+        if (update) {
+            writeBaseline(baselineFile, measured);
+            System.out.printf("%nWrote %d entries to %s%n", measured.size(), baselineFile);
+            return;
+        }
+
+        List<String> regressions = compare(loadBaseline(baselineFile), measured, threshold);
+        if (!regressions.isEmpty()) {
+            System.err.printf("%nAllocations regressed more than %.1f%%:%n", threshold);
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() throws Exception {
+        renderer = ViewRenderer.generated(datasetSize);
+
+        MockHttpServletResponse response = renderer.render(template);
+        if (response.getContentAsByteArray().length == 0) {
+            throw new IllegalStateException("Template '" + template + "' rendered an empty page");
+        }
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        MockHttpServletResponse response = renderer.render(template);
+        bh.consume(response.getContentAsByteArray());
+    }
+
+    private static double allocatedBytes(RunResult result) {
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            // the GC profiler prefixes its labels, e.g. "·gc.alloc.rate.norm"
+            if (entry.getKey().endsWith(ALLOCATION_RESULT)) {
+                return entry.getValue().getScore();
+            }
+        }
+        throw new IllegalStateException("No " + ALLOCATION_RESULT + " result, is the GC profiler supported here?");
+    }
+
+    /**
+     * Prints the measured allocations next to the baseline and returns a line for every engine past the threshold.
+     */
+    static List<String> compare(Map<String, Double> baseline, Map<String, Double> measured, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-24s %16s %16s %9s%n", "template.datasetSize", "bytes/render", "baseline", "change");
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            Double expected = baseline.get(entry.getKey());
+            if (expected == null || expected <= 0) {
+                System.out.printf(Locale.ROOT, "%-24s %16.0f %16s %9s%n", entry.getKey(), entry.getValue(), "-", "-");
+                continue;
+            }
+
+            double change = (entry.getValue() - expected) * 100 / expected;
+            String line = String.format(Locale.ROOT, "%-24s %16.0f %16.0f %+8.1f%%", entry.getKey(),
+                    entry.getValue(), expected, change);
+            System.out.println(line);
+            if (change > threshold) {
+                regressions.add(line);
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, Double> loadBaseline(File file) throws IOException {
+        Map<String, Double> baseline = new TreeMap<>();
+        if (!file.exists()) {
+            return baseline;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            baseline.put(key, Double.valueOf(properties.getProperty(key)));
+        }
+        return baseline;
+    }
+
+    /**
+     * Replaces the entries of the baseline, keeping the comments at the top of the file.
+     */
+    private static void writeBaseline(File file, Map<String, Double> measured) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (file.exists()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.ISO_8859_1)) {
+                if (line.startsWith("#") || line.trim().isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+
+        Map<String, Double> entries = new TreeMap<>(loadBaseline(file));
+        entries.putAll(measured);
+        for (Map.Entry<String, Double> entry : entries.entrySet()) {
+            lines.add(entry.getKey() + "=" + Math.round(entry.getValue()));
+        }
+        Files.write(file.toPath(), lines, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -1,55 +1,36 @@
 package com.jeroenreijn.benchmark;
 
-import com.jeroenreijn.examples.Launch;
-import com.jeroenreijn.examples.controller.PresentationsController;
+import com.jeroenreijn.examples.configuration.Engines;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
-import org.springframework.boot.SpringApplication;
-import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.ui.ModelMap;
+import org.springframework.mock.web.MockHttpServletResponse;
 
-import javax.servlet.http.HttpServletRequest;
 import java.io.File;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Renders the listing page of every template engine through the view resolvers of the application, for
+ * generated repositories of increasing size and with template caching off ({@code dev}) and on
+ * ({@code production}).
+ *
  * Some code on this class has been sampled from https://stackoverflow.com/a/41499972
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MINUTES)
-@State(Scope.Thread)
+@State(Scope.Benchmark)
 public class LaunchJMH {
-    private static final String[] templates = {
-            "jsp",
-            "freemarker",
-            "velocity",
-            "thymeleaf",
-            "jade",
-            "scalate",
-            "mustache",
-            "pebble",
-            "handlebars",
-            "jtwig",
-            "httl",
-            "chunk",
-            "htmlFlow",
-            "trimou",
-            "rocker",
-            "ickenham",
-            "rythm",
-            "groovy",
-            "liqp"
-    };
-    private static final HttpServletRequest[] mockRequests = Arrays.stream(templates)
-            .map(templateStr -> new MockHttpServletRequest("GET", "/" + templateStr))
-            .toArray(MockHttpServletRequest[]::new);
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int datasetSize;
+
+    @Param({"dev", "production"})
+    public String profile;
 
     public static void main(String[] args) throws Exception {
 
@@ -62,8 +43,7 @@ public class LaunchJMH {
         System.out.print(classpath);
         System.setProperty("java.class.path", classpath.toString());
 
-        Options opt = new OptionsBuilder()
-                .include(LaunchJMH.class.getName() + ".*")
+        Options opt = ViewRenderer.everyEngine(LaunchJMH.class)
                 .timeUnit(TimeUnit.MILLISECONDS)
                 .threads(1)
 
@@ -74,107 +54,22 @@ public class LaunchJMH {
         new Runner(opt).run();
     }
 
-    static ConfigurableApplicationContext context;
-
-    private PresentationsController controller;
+    private ViewRenderer renderer;
 
     @Setup(Level.Trial)
-    public synchronized void initialize() {
-        try {
-            String args = "";
-            if (context == null) {
-                context = SpringApplication.run(Launch.class, args);
-            }
-            controller = context.getBean(PresentationsController.class);
-            System.out.println(controller);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
+    public void initialize() throws Exception {
+        renderer = ViewRenderer.generated(datasetSize, "--spring.profiles.active=" + profile);
 
-    private void benchmarkTemplate(int templateIdx) {
-        try {
-            controller.showList(mockRequests[templateIdx], templates[templateIdx], new ModelMap());
-        } catch (Exception e) {
-            e.printStackTrace();
+        // fail the trial up front instead of measuring an engine that cannot render
+        MockHttpServletResponse response = renderer.render(template);
+        if (response.getContentAsByteArray().length == 0) {
+            throw new IllegalStateException("Template '" + template + "' rendered an empty page");
         }
     }
 
     @Benchmark
-    public void benchmarkJsp(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(0);
+    public void render(Blackhole bh) throws Exception {
+        MockHttpServletResponse response = renderer.render(template);
+        bh.consume(response.getContentAsByteArray());
     }
-
-    @Benchmark
-    public void benchmarkFreemarker(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(1);
-    }
-    @Benchmark
-    public void benchmarkVelocity(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(2);
-    }
-    @Benchmark
-    public void benchmarkThymeleaf(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(3);
-    }
-    @Benchmark
-    public void benchmarkJade(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(4);
-    }@Benchmark
-    public void benchmarkScalate(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(5);
-    }
-    @Benchmark
-    public void benchmarkMustache(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(6);
-    }
-    @Benchmark
-    public void benchmarkPebble(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(7);
-    }
-    @Benchmark
-    public void benchmarkHandlebars(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(8);
-    }
-    @Benchmark
-    public void benchmarkJtwig(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(9);
-    }
-    @Benchmark
-    public void benchmarkHttl(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(10);
-    }
-    @Benchmark
-    public void benchmarkChunk(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(11);
-    }
-    @Benchmark
-    public void benchmarkHtmlFlow(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(12);
-    }
-    @Benchmark
-    public void benchmarkTrimou(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(13);
-    }
-    @Benchmark
-    public void benchmarkRocker(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(14);
-    }
-    @Benchmark
-    public void benchmarkIckenham(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(15);
-    }
-    @Benchmark
-    public void benchmarkRythm(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(16);
-    }
-    @Benchmark
-    public void benchmarkGroovy(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(17);
-    }
-    @Benchmark
-    public void benchmarkLiqp(LaunchJMH state, Blackhole bh) {
-        benchmarkTemplate(18);
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders every engine from a repository that is read in pages, each of which takes a millisecond to fetch. The
+ * pages are either all fetched before the view renders, or fetched in the background while the view iterates over
+ * them. Besides the time for the whole page, the time until the first byte reaches the response is counted.
+ *
+ * Fetching every page takes at least {@value #PAGES} milliseconds. An engine whose first byte comes sooner when the
+ * pages are fetched lazily renders while the data arrives; the others wait for all rows, because they copy the
+ * model, like the Liqp view does, or because they render the whole page before writing it. They are listed at the
+ * end of the run. HtmlFlow, Rocker and kotlinx.html run in their streaming mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@State(Scope.Benchmark)
+public class LazyIterationJMH {
+    static final int PAGES = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final double FETCH_MILLIS = 1;
+
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = ViewRenderer.everyEngine(LazyIterationJMH.class)
+                .shouldFailOnError(true)
+                .build();
+
+        report(new Runner(opt).run());
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(PAGES * PAGE_SIZE,
+                "--presentations.latency.millis=" + FETCH_MILLIS,
+                "--presentations.fetch.page-size=" + PAGE_SIZE,
+                "--presentations.fetch.lazy=" + lazy,
+                // streaming mode for the engines that otherwise render to a String first
+                "--templates.streaming.htmlFlow=true",
+                "--templates.streaming.rocker=true",
+                "--templates.streaming.kotlinx=true");
+    }
+
+    @Benchmark
+    public void render(FirstByte firstByte, Blackhole bh) throws Exception {
+        StreamingJMH.FirstByteResponse response = renderer.render(template, new StreamingJMH.FirstByteResponse());
+        response.flushBuffer();
+
+        firstByte.firstByteMicros += TimeUnit.NANOSECONDS.toMicros(response.getTimeToFirstByte());
+        firstByte.renders++;
+        bh.consume(response.getContentAsByteArray());
+    }
+
+    /**
+     * The time to the first byte, summed over the renders of an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FirstByte {
+        public long firstByteMicros;
+        public long renders;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            firstByteMicros = 0;
+            renders = 0;
+        }
+    }
+
+    private static void report(Collection<RunResult> results) {
+        Map<String, double[]> timings = new TreeMap<>();
+        for (RunResult result : results) {
+            String template = result.getParams().getParam("template");
+            boolean lazy = Boolean.parseBoolean(result.getParams().getParam("lazy"));
+            Map<String, Result> secondary = result.getAggregatedResult().getSecondaryResults();
+            double firstByteMillis = secondary.get("firstByteMicros").getScore()
+                    / Math.max(1, secondary.get("renders").getScore()) / 1000;
+
+            double[] timing = timings.computeIfAbsent(template, t -> new double[4]);
+            timing[lazy ? 2 : 0] = firstByteMillis;
+            timing[lazy ? 3 : 1] = result.getPrimaryResult().getScore();
+        }
+
+        double allPagesMillis = PAGES * FETCH_MILLIS;
+        System.out.printf("%n%-12s %28s %28s%n", "", "all pages first", "lazily");
+        System.out.printf("%-12s %14s %13s %14s %13s%n", "template", "first byte", "total", "first byte",
+                "total");
+        StringBuilder materializing = new StringBuilder();
+        for (Map.Entry<String, double[]> entry : timings.entrySet()) {
+            double[] timing = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-12s %11.2f ms %10.2f ms %11.2f ms %10.2f ms%n", entry.getKey(),
+                    timing[0], timing[1], timing[2], timing[3]);
+            if (timing[2] >= allPagesMillis) {
+                materializing.append(materializing.length() == 0 ? "" : ", ").append(entry.getKey());
+            }
+        }
+        System.out.printf("%nWait for all %d pages before the first byte: %s%n", PAGES,
+                materializing.length() == 0 ? "none" : materializing);
+    }
+}
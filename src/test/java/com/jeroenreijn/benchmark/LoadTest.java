@@ -0,0 +1,376 @@
+package com.jeroenreijn.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jeroenreijn.examples.Launch;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the listing page of every engine over HTTP and records the latencies in HdrHistograms. Each engine gets a
+ * closed-loop run, where every connection sends its next request as soon as the previous one returned, and
+ * optionally a run at a constant arrival rate. In the latter, latency is measured from the moment a request was
+ * due to be sent, so a stalled server is charged for the requests that queued up behind it (no coordinated
+ * omission). While a workload runs the heap and thread count of the server are sampled from its
+ * {@code /actuator/metrics} endpoint, so the servlet and the reactive stack can be compared on memory per
+ * connection as well. The results are written as CSV and JSON.
+ *
+ * With {@code --threads=platform,virtual} the in-process application is started twice, once handling requests on
+ * Tomcat's pool of platform threads and once on virtual threads (Java 21 and later). On virtual threads the times a
+ * thread blocked while pinned to its carrier in the engine under test are counted per workload. Combine it with a
+ * slow repository, such as {@code --presentations.latency.millis=20}, and a thousand connections or more.
+ *
+ * Without {@code --url} the application is started in-process on a random port. Options, with their defaults:
+ *
+ * <pre>
+ * --url=                   run against an application that is already running, e.g. http://host:8080
+ * --profile=production     profile of the in-process application
+ * --templates=jsp,...      engines to test, all by default
+ * --connections=10         concurrent connections
+ * --warmup=10              seconds of closed-loop load before each engine is measured
+ * --duration=30            seconds per workload
+ * --rate=0                 requests per second of the constant arrival rate run, 0 to skip it
+ * --threads=platform       platform, virtual or both, the request threads of the in-process application
+ * --output=target/load-test
+ * </pre>
+ *
+ * Any other {@code --name=value} argument is passed on to the in-process application.
+ */
+public class LoadTest {
+    private static final String[] TEMPLATES = {"jsp", "velocity", "freemarker", "thymeleaf", "mustache", "jade",
+            "pebble", "handlebars", "jtwig", "scalate", "httl", "chunk", "htmlFlow", "trimou", "rocker", "ickenham",
+            "rythm", "groovy", "liqp", "kotlinx"};
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(args).run();
+    }
+
+    LoadTest(String[] args) {
+        options.put("url", "");
+        options.put("profile", "production");
+        options.put("templates", String.join(",", TEMPLATES));
+        options.put("connections", "10");
+        options.put("warmup", "10");
+        options.put("duration", "30");
+        options.put("rate", "0");
+        options.put("threads", "platform");
+        options.put("output", "target/load-test");
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (options.containsKey(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+    }
+
+    void run() throws Exception {
+        String[] threadModes = options.get("threads").split(",");
+        for (String threads : threadModes) {
+            if (!threads.trim().equals("platform") && !threads.trim().equals("virtual")) {
+                throw new IllegalArgumentException("Expected platform or virtual threads but got " + threads);
+            }
+        }
+        if (threadModes.length > 1 && !options.get("url").isEmpty()) {
+            throw new IllegalArgumentException("--url tests one running application, give a single --threads");
+        }
+
+        // HttpURLConnection keeps 5 idle connections per host by default, the others would reconnect every time
+        int connections = Integer.parseInt(options.get("connections"));
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, connections)));
+
+        List<LoadTestResult> results = new ArrayList<>();
+        for (String threads : threadModes) {
+            results.addAll(run(threads.trim(), connections));
+        }
+
+        write(results, new File(options.get("output")));
+    }
+
+    private List<LoadTestResult> run(String threads, int connections) throws Exception {
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl.isEmpty()) {
+            List<String> launchArgs = new ArrayList<>(applicationArgs);
+            launchArgs.add("--server.port=0");
+            launchArgs.add("--spring.profiles.active=" + options.get("profile"));
+            launchArgs.add("--spring.threads.virtual.enabled=" + threads.equals("virtual"));
+            context = SpringApplication.run(Launch.class, launchArgs.toArray(new String[0]));
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try {
+            long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+            long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+            int rate = Integer.parseInt(options.get("rate"));
+
+            ServerMetrics server = new ServerMetrics(baseUrl);
+
+            List<LoadTestResult> results = new ArrayList<>();
+            for (String template : options.get("templates").split(",")) {
+                String url = baseUrl + "/" + template.trim();
+
+                closedLoop(template, url, connections, warmupNanos, server);
+                results.add(report(template, "closed-loop", threads, 0, connections,
+                        closedLoop(template, url, connections, durationNanos, server)));
+                if (rate > 0) {
+                    results.add(report(template, "constant-rate", threads, rate, connections,
+                            constantRate(template, url, connections, rate, durationNanos, server)));
+                }
+            }
+
+            return results;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Run closedLoop(String template, String url, int connections, long durationNanos,
+            ServerMetrics server) throws Exception {
+        return run(template, connections, durationNanos, server, (connection, start, end, run) -> {
+            while (System.nanoTime() < end) {
+                long sent = System.nanoTime();
+                boolean ok = get(url);
+                run.record(ok, System.nanoTime() - sent, System.nanoTime() - sent);
+            }
+        });
+    }
+
+    private static Run constantRate(String template, String url, int connections, int rate, long durationNanos,
+            ServerMetrics server) throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        return run(template, connections, durationNanos, server, (connection, start, end, run) -> {
+            // The connections take turns, together they send one request every interval
+            for (long due = start + connection * intervalNanos; due < end; due += connections * intervalNanos) {
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long sent = System.nanoTime();
+                boolean ok = get(url);
+                long done = System.nanoTime();
+                run.record(ok, done - due, done - sent);
+            }
+        });
+    }
+
+    private static Run run(String template, int connections, long durationNanos, ServerMetrics server,
+            Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            long end = start + durationNanos;
+
+            long pinnedBefore = server.isAvailable() ? server.pinnedVirtualThreads(template) : -1;
+            long heapBefore = server.isAvailable() ? server.heapUsed() : -1;
+            LongAccumulator heapUsed = new LongAccumulator(Math::max, -1);
+            LongAccumulator liveThreads = new LongAccumulator(Math::max, -1);
+            if (server.isAvailable()) {
+                sampler.scheduleAtFixedRate(() -> {
+                    heapUsed.accumulate(server.heapUsed());
+                    liveThreads.accumulate(server.liveThreads());
+                }, 1, 1, TimeUnit.SECONDS);
+            }
+
+            List<Future<Run>> futures = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                int connection = i;
+                futures.add(executor.submit(() -> {
+                    Run run = new Run();
+                    worker.work(connection, start, end, run);
+                    return run;
+                }));
+            }
+
+            Run total = new Run();
+            for (Future<Run> future : futures) {
+                total.add(future.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            total.heapBefore = heapBefore;
+            total.heapUsed = heapUsed.get();
+            total.liveThreads = liveThreads.get();
+            long pinnedAfter = server.isAvailable() ? server.pinnedVirtualThreads(template) : -1;
+            total.pinned = pinnedBefore < 0 || pinnedAfter < 0 ? -1 : pinnedAfter - pinnedBefore;
+
+            return total;
+        } finally {
+            sampler.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends a GET request and reads the whole response, so the connection can be kept alive.
+     */
+    private static boolean get(String url) {
+        byte[] buffer = new byte[8192];
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            int status = connection.getResponseCode();
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                try (InputStream in = body) {
+                    while (in.read(buffer) >= 0) {
+                        // drain
+                    }
+                }
+            }
+            return status == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static LoadTestResult report(String template, String workload, String threads, int rate,
+            int connections, Run run) {
+        LoadTestResult result = new LoadTestResult(template, workload, threads, rate, connections, run.latency,
+                run.serviceTime, run.errors, run.elapsedNanos, run.heapBefore, run.heapUsed, run.liveThreads,
+                run.pinned);
+        System.out.println(result.toLine());
+        return result;
+    }
+
+    private static void write(List<LoadTestResult> results, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        try (PrintWriter csv = new PrintWriter(new File(directory, "results.csv"), StandardCharsets.UTF_8.name())) {
+            csv.println(LoadTestResult.CSV_HEADER);
+            results.forEach(result -> csv.println(result.toCsv()));
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File(directory, "results.json"), results);
+
+        System.out.printf(Locale.ROOT, "%nWrote %d results to %s%n", results.size(), directory.getAbsolutePath());
+    }
+
+    /**
+     * Reads gauges from the actuator metrics endpoint of the server under test. The values are -1 when the
+     * endpoint is not exposed.
+     */
+    private static class ServerMetrics {
+        private final String baseUrl;
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final boolean available;
+
+        ServerMetrics(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.available = liveThreads() >= 0;
+            if (!available) {
+                System.out.println("No metrics at " + baseUrl + "/actuator/metrics, server memory is not reported");
+            }
+        }
+
+        boolean isAvailable() {
+            return available;
+        }
+
+        long heapUsed() {
+            return measurement("jvm.memory.used?tag=area:heap", "VALUE");
+        }
+
+        long liveThreads() {
+            return measurement("jvm.threads.live", "VALUE");
+        }
+
+        /**
+         * The pinned parks in the given engine, only registered when the server runs on virtual threads.
+         */
+        long pinnedVirtualThreads(String engine) {
+            return measurement("jvm.threads.virtual.pinned?tag=engine:" + engine, "COUNT");
+        }
+
+        private long measurement(String metric, String statistic) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/actuator/metrics/" + metric)
+                        .openConnection();
+                if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                    connection.disconnect();
+                    return -1;
+                }
+                try (InputStream in = connection.getInputStream()) {
+                    for (JsonNode measurement : mapper.readTree(in).path("measurements")) {
+                        if (statistic.equals(measurement.path("statistic").asText())) {
+                            return measurement.path("value").asLong();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // not exposed
+            }
+            return -1;
+        }
+    }
+
+    private interface Worker {
+        void work(int connection, long start, long end, Run run) throws Exception;
+    }
+
+    /**
+     * The latencies recorded by one connection, or by all of them once merged.
+     */
+    private static class Run {
+        private final Histogram latency = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        private final Histogram serviceTime = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        private long errors;
+        private long elapsedNanos;
+        private long heapBefore = -1;
+        private long heapUsed = -1;
+        private long liveThreads = -1;
+        private long pinned = -1;
+
+        void record(boolean ok, long latencyNanos, long serviceTimeNanos) {
+            if (!ok) {
+                errors++;
+            }
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY_MICROS));
+            serviceTime.recordValue(
+                    Math.min(TimeUnit.NANOSECONDS.toMicros(serviceTimeNanos), HIGHEST_LATENCY_MICROS));
+        }
+
+        void add(Run other) {
+            latency.add(other.latency);
+            serviceTime.add(other.serviceTime);
+            errors += other.errors;
+        }
+    }
+}
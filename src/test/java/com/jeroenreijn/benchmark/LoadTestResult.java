@@ -0,0 +1,153 @@
+package com.jeroenreijn.benchmark;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of one workload against one engine. Latencies are in milliseconds. For the constant arrival rate
+ * the latency counts from the moment a request was due, the service time from the moment it was actually sent.
+ * The heap and the live threads are the peaks sampled from the server during the workload. The heap per connection
+ * is the growth of the heap from just before the workload to its peak, so the memory the server holds anyway is not
+ * charged to the connections. Pinned counts the times a virtual thread of the server blocked while pinned to its
+ * carrier in the engine. They are -1 when the server does not expose them.
+ */
+public class LoadTestResult {
+    static final String CSV_HEADER = "template,workload,threads,target_rate,requests,errors,throughput,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms,"
+            + "connections,heap_used_mb,heap_kb_per_connection,live_threads,pinned";
+
+    private final String template;
+    private final String workload;
+    private final String threads;
+    private final int targetRate;
+    private final long requests;
+    private final long errors;
+    private final double throughput;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+    private final double serviceP99;
+    private final int connections;
+    private final double heapUsedMb;
+    private final double heapKbPerConnection;
+    private final long liveThreads;
+    private final long pinned;
+
+    LoadTestResult(String template, String workload, String threads, int targetRate, int connections,
+            Histogram latency, Histogram serviceTime, long errors, long elapsedNanos, long heapBeforeBytes,
+            long heapUsedBytes, long liveThreads, long pinned) {
+        this.template = template;
+        this.workload = workload;
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.requests = latency.getTotalCount();
+        this.errors = errors;
+        this.throughput = requests / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        this.p50 = millis(latency.getValueAtPercentile(50));
+        this.p90 = millis(latency.getValueAtPercentile(90));
+        this.p99 = millis(latency.getValueAtPercentile(99));
+        this.p999 = millis(latency.getValueAtPercentile(99.9));
+        this.max = millis(latency.getMaxValue());
+        this.serviceP99 = millis(serviceTime.getValueAtPercentile(99));
+        this.connections = connections;
+        this.heapUsedMb = heapUsedBytes < 0 ? -1 : heapUsedBytes / (1024.0 * 1024.0);
+        this.heapKbPerConnection = heapBeforeBytes < 0 || heapUsedBytes < 0 ? -1
+                : Math.max(0, heapUsedBytes - heapBeforeBytes) / 1024.0 / connections;
+        this.liveThreads = liveThreads;
+        this.pinned = pinned;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String getWorkload() {
+        return workload;
+    }
+
+    public String getThreads() {
+        return threads;
+    }
+
+    public int getTargetRate() {
+        return targetRate;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getServiceP99() {
+        return serviceP99;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public double getHeapUsedMb() {
+        return heapUsedMb;
+    }
+
+    public double getHeapKbPerConnection() {
+        return heapKbPerConnection;
+    }
+
+    public long getLiveThreads() {
+        return liveThreads;
+    }
+
+    public long getPinned() {
+        return pinned;
+    }
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.1f,%.1f,%d,%d",
+                template, workload, threads, targetRate, requests, errors, throughput, p50, p90, p99, p999, max,
+                serviceP99, connections, heapUsedMb, heapKbPerConnection, liveThreads, pinned);
+    }
+
+    String toLine() {
+        return String.format(Locale.ROOT,
+                "%-12s %-14s %-8s %9.1f req/s  p50 %8.3f  p99 %8.3f  p99.9 %8.3f  max %8.3f ms  %d errors"
+                        + "  heap %.1f MB  %d threads  %d pinned",
+                template, workload, threads, throughput, p50, p99, p999, max, errors, heapUsedMb, liveThreads,
+                pinned);
+    }
+}
@@ -0,0 +1,101 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders every engine as it writes its pages and with minified output, where the engines leave out whitespace or
+ * have it collapsed while they write. Next to the render time the bytes of the page are counted, so the engines can
+ * be compared on pages of about the same size. Both are listed per engine at the end of the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@State(Scope.Benchmark)
+public class MinifiedOutputJMH {
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean minify;
+
+    @Param({"10"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = ViewRenderer.everyEngine(MinifiedOutputJMH.class)
+                .shouldFailOnError(true)
+                .build();
+
+        report(new Runner(opt).run());
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(datasetSize, "--templates.minify.enabled=" + minify);
+    }
+
+    @Benchmark
+    public void render(ResponseSize size, Blackhole bh) throws Exception {
+        byte[] page = renderer.render(template).getContentAsByteArray();
+
+        size.responseBytes += page.length;
+        size.renders++;
+        bh.consume(page);
+    }
+
+    /**
+     * The bytes of the pages, summed over the renders of an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResponseSize {
+        public long responseBytes;
+        public long renders;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            responseBytes = 0;
+            renders = 0;
+        }
+    }
+
+    private static void report(Collection<RunResult> results) {
+        Map<String, double[]> sizes = new TreeMap<>();
+        for (RunResult result : results) {
+            String template = result.getParams().getParam("template");
+            boolean minify = Boolean.parseBoolean(result.getParams().getParam("minify"));
+            Map<String, Result> secondary = result.getAggregatedResult().getSecondaryResults();
+            double bytes = secondary.get("responseBytes").getScore()
+                    / Math.max(1, secondary.get("renders").getScore());
+
+            double[] size = sizes.computeIfAbsent(template, t -> new double[4]);
+            size[minify ? 2 : 0] = bytes;
+            size[minify ? 3 : 1] = result.getPrimaryResult().getScore();
+        }
+
+        System.out.printf("%n%-12s %24s %24s %8s%n", "", "as written", "minified", "");
+        System.out.printf("%-12s %10s %13s %10s %13s %8s%n", "template", "bytes", "time", "bytes", "time",
+                "smaller");
+        for (Map.Entry<String, double[]> entry : sizes.entrySet()) {
+            double[] size = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-12s %10.0f %10.2f us %10.0f %10.2f us %7.1f%%%n", entry.getKey(),
+                    size[0], size[1], size[2], size[3], size[0] > 0 ? 100 * (size[0] - size[2]) / size[0] : 0);
+        }
+    }
+}
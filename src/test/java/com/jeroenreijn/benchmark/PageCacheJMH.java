@@ -0,0 +1,83 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.controller.RenderedPageCacheFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the listing pages through the {@link RenderedPageCacheFilter}, once with the page cache disabled and once
+ * with it enabled, so the cached and uncached throughput show up as separate results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@State(Scope.Benchmark)
+public class PageCacheJMH {
+    @Param({
+            "jsp",
+            "freemarker",
+            "thymeleaf",
+            "mustache",
+            "pebble",
+            "htmlFlow",
+            "rocker",
+            "liqp"
+    })
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean pageCache;
+
+    @Param({"100", "10000"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+    private RenderedPageCacheFilter filter;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PageCacheJMH.class.getName() + ".*")
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(datasetSize, "--templates.page-cache.enabled=" + pageCache);
+        filter = renderer.getContext().getBean(RenderedPageCacheFilter.class);
+        filter.clear();
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        MockHttpServletRequest request = renderer.createRequest(template);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            try {
+                renderer.render(template, (HttpServletRequest) req, (HttpServletResponse) res);
+            } catch (Exception e) {
+                throw new ServletException(e);
+            }
+        });
+
+        bh.consume(response.getContentAsByteArray());
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s page cache=%s presentations=%d: %d hits, %d misses, %d evictions%n",
+                template, pageCache, datasetSize, filter.getHits(), filter.getMisses(), filter.getEvictions());
+    }
+}
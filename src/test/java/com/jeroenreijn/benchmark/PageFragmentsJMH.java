@@ -0,0 +1,81 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import com.jeroenreijn.examples.services.PageFragmentsService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders small listing pages of the engines that can write the shared head and scripts from fragments rendered at
+ * startup, once with the fragments and once rendering their own partials. The fewer presentations a page lists,
+ * the larger the part of its render time that goes into the head and the scripts; the savings per engine are listed
+ * at the end of the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@State(Scope.Benchmark)
+public class PageFragmentsJMH {
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean fragments;
+
+    @Param({"1", "10"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PageFragmentsJMH.class.getName() + ".*")
+                .param("template", PageFragmentsService.ENGINES.toArray(new String[0]))
+                .shouldFailOnError(true)
+                .build();
+
+        report(new Runner(opt).run());
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(datasetSize, "--templates.fragments.enabled=" + fragments);
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        bh.consume(renderer.render(template).getContentAsByteArray());
+    }
+
+    private static void report(Collection<RunResult> results) {
+        Map<String, double[]> timings = new TreeMap<>();
+        for (RunResult result : results) {
+            String key = result.getParams().getParam("template") + " "
+                    + result.getParams().getParam("datasetSize");
+            boolean fragments = Boolean.parseBoolean(result.getParams().getParam("fragments"));
+
+            timings.computeIfAbsent(key, k -> new double[2])[fragments ? 1 : 0] =
+                    result.getPrimaryResult().getScore();
+        }
+
+        System.out.printf("%n%-16s %12s %12s %12s%n", "template size", "partials", "fragments", "saved");
+        for (Map.Entry<String, double[]> entry : timings.entrySet()) {
+            double[] timing = entry.getValue();
+            double saved = timing[0] - timing[1];
+            System.out.printf(Locale.ROOT, "%-16s %9.2f us %9.2f us %9.2f us %5.1f%%%n", entry.getKey(),
+                    timing[0], timing[1], saved, timing[0] > 0 ? 100 * saved / timing[0] : 0);
+        }
+    }
+}
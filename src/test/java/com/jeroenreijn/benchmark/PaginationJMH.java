@@ -0,0 +1,71 @@
+package com.jeroenreijn.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders one page of 25 presentations from the middle of repositories of growing size, addressed by page number
+ * and by the id to continue after. The time per request should not grow with the size of the repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PaginationJMH {
+    private static final int PAGE_SIZE = 25;
+
+    @Param({
+            "jsp",
+            "freemarker",
+            "thymeleaf",
+            "mustache",
+            "htmlFlow",
+            "rocker",
+            "liqp"
+    })
+    public String template;
+
+    @Param({"1000", "10000", "100000"})
+    public int datasetSize;
+
+    @Param({"offset", "keyset"})
+    public String pagination;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PaginationJMH.class.getName() + ".*")
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(datasetSize);
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        MockHttpServletRequest request = renderer.createRequest(template);
+        request.setParameter("size", String.valueOf(PAGE_SIZE));
+        if ("keyset".equals(pagination)) {
+            request.setParameter("after", String.valueOf(datasetSize / 2));
+        } else {
+            request.setParameter("page", String.valueOf(datasetSize / PAGE_SIZE / 2));
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        renderer.render(template, request, response);
+
+        bh.consume(response.getContentAsByteArray());
+    }
+}
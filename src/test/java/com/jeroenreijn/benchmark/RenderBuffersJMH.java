@@ -0,0 +1,105 @@
+package com.jeroenreijn.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the engines whose views build a complete page before they write it, once into pooled render buffers and
+ * once as before, with the GC profiler. The render time and the bytes allocated per render of both are listed per
+ * engine at the end of the run. Every render checks that the content length matches the bytes of the page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@State(Scope.Benchmark)
+public class RenderBuffersJMH {
+    private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+
+    @Param({
+            "trimou",
+            "liqp",
+            "rocker",
+            "htmlFlow",
+            "kotlinx"
+    })
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean renderBuffers;
+
+    @Param({"10", "1000"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(RenderBuffersJMH.class.getName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+
+        report(new Runner(opt).run());
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.generated(datasetSize, "--templates.render-buffers.enabled=" + renderBuffers);
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        MockHttpServletResponse response = renderer.render(template);
+        byte[] page = response.getContentAsByteArray();
+        if (renderBuffers && response.getContentLength() != page.length) {
+            throw new IllegalStateException("Template '" + template + "' sent " + page.length
+                    + " bytes with a content length of " + response.getContentLength());
+        }
+        bh.consume(page);
+    }
+
+    private static void report(Collection<RunResult> results) {
+        Map<String, double[]> scores = new TreeMap<>();
+        for (RunResult result : results) {
+            String key = result.getParams().getParam("template") + "." + result.getParams().getParam("datasetSize");
+            boolean buffered = Boolean.parseBoolean(result.getParams().getParam("renderBuffers"));
+
+            double[] score = scores.computeIfAbsent(key, k -> new double[4]);
+            score[buffered ? 2 : 0] = result.getPrimaryResult().getScore();
+            score[buffered ? 3 : 1] = allocatedBytes(result);
+        }
+
+        System.out.printf("%n%-16s %26s %26s %9s%n", "", "as before", "render buffers", "");
+        System.out.printf("%-16s %12s %13s %12s %13s %9s%n", "template.size", "time", "bytes/render", "time",
+                "bytes/render", "allocated");
+        for (Map.Entry<String, double[]> entry : scores.entrySet()) {
+            double[] score = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-16s %9.2f us %13.0f %9.2f us %13.0f %+8.1f%%%n", entry.getKey(),
+                    score[0], score[1], score[2], score[3], score[1] > 0 ? 100 * (score[3] - score[1]) / score[1] : 0);
+        }
+    }
+
+    private static double allocatedBytes(RunResult result) {
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith(ALLOCATION_RESULT)) {
+                return entry.getValue().getScore();
+            }
+        }
+        return 0;
+    }
+}
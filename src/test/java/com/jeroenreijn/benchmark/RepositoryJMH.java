@@ -0,0 +1,78 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.model.Presentation;
+import com.jeroenreijn.examples.repository.InMemoryPresentationsRepository;
+import com.jeroenreijn.examples.repository.PresentationsGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the repository from three threads, once on their own and once next to a thread that keeps saving and
+ * deleting presentations. Readers never wait for the writer, so their throughput should hardly differ between the
+ * two groups.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+public class RepositoryJMH {
+    @Param({"100", "10000"})
+    public int datasetSize;
+
+    private InMemoryPresentationsRepository repository;
+    private List<Presentation> presentations;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(RepositoryJMH.class.getName() + ".*")
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        PresentationsGenerator generator = new PresentationsGenerator();
+        generator.setSize(datasetSize);
+        presentations = generator.generate();
+        repository = new InMemoryPresentationsRepository(presentations);
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(3)
+    public void readOnlyReader(Blackhole bh) {
+        read(bh);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedReader(Blackhole bh) {
+        read(bh);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedWriter() {
+        Presentation presentation = presentations.get(ThreadLocalRandom.current().nextInt(presentations.size()));
+        if (!repository.delete(presentation.getId())) {
+            repository.save(presentation);
+        }
+    }
+
+    private void read(Blackhole bh) {
+        for (Presentation presentation : repository.findAll()) {
+            bh.consume(presentation);
+        }
+        bh.consume(repository.findByRoom("Room 1"));
+    }
+}
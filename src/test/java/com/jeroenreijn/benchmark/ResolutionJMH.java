@@ -0,0 +1,95 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.view.SuffixDispatchingViewResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to find the view of an engine, by asking every resolver in turn as the
+ * {@code DispatcherServlet} used to ({@code chain}) and through the {@link SuffixDispatchingViewResolver}
+ * ({@code dispatch}), for a known view name and for one that no engine knows. {@code render} handles the whole
+ * request for the same engine, to put the resolution next to the cost of rendering.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolutionJMH {
+    private static final String UNKNOWN_VIEW_NAME = "index-unknown";
+
+    @Param({"jsp", "freemarker", "rocker", "htmlFlow", "kotlinx"})
+    public String template;
+
+    private ViewRenderer renderer;
+    private List<ViewResolver> chain;
+    private SuffixDispatchingViewResolver dispatcher;
+    private String viewName;
+    private final Locale locale = Locale.US;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ResolutionJMH.class.getName() + ".*")
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() throws Exception {
+        renderer = ViewRenderer.get("--spring.profiles.active=production");
+        dispatcher = renderer.getContext().getBean(SuffixDispatchingViewResolver.class);
+        chain = dispatcher.getViewResolvers();
+        viewName = "index-" + template;
+
+        if (dispatcher.resolveViewName(viewName, locale) == null || chain(viewName) == null) {
+            throw new IllegalStateException("No view for '" + viewName + "'");
+        }
+    }
+
+    @Benchmark
+    public View chain() throws Exception {
+        return chain(viewName);
+    }
+
+    @Benchmark
+    public View dispatch() throws Exception {
+        return dispatcher.resolveViewName(viewName, locale);
+    }
+
+    @Benchmark
+    public View chainUnknown() throws Exception {
+        return chain(UNKNOWN_VIEW_NAME);
+    }
+
+    @Benchmark
+    public View dispatchUnknown() throws Exception {
+        return dispatcher.resolveViewName(UNKNOWN_VIEW_NAME, locale);
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        bh.consume(renderer.render(template).getContentAsByteArray());
+    }
+
+    private View chain(String name) throws Exception {
+        for (ViewResolver viewResolver : chain) {
+            View view = viewResolver.resolveViewName(name, locale);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+}
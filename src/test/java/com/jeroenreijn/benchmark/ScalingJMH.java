@@ -0,0 +1,147 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.configuration.Engines;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders every engine from 1, 2, 4, 8... threads up to the number of cores, all sharing the same view resolvers,
+ * and compares every rendered page byte for byte with a page rendered by a single thread before the measurement. A
+ * page that differs fails the benchmark of that engine, which points at state shared between requests.
+ *
+ * At the end the throughput per thread count is printed next to the speedup over one thread. Engines that reach
+ * less than {@code scaling.min-efficiency} (0.5 by default) of a linear speedup, or that stop gaining throughput
+ * when the threads are doubled, are flagged.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingJMH {
+    /**
+     * Doubling the threads must add at least this share of throughput to count as scaling.
+     */
+    private static final double MIN_GAIN = 0.1;
+
+    @Param({Engines.ALL})
+    public String template;
+
+    @Param({"100"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+    private byte[] reference;
+
+    public static void main(String[] args) throws Exception {
+        double minEfficiency = Double.parseDouble(System.getProperty("scaling.min-efficiency", "0.5"));
+
+        List<Integer> threadCounts = threadCounts(Runtime.getRuntime().availableProcessors());
+        Map<String, Map<Integer, Double>> throughput = new TreeMap<>();
+        for (int threads : threadCounts) {
+            Options opt = ViewRenderer.everyEngine(ScalingJMH.class)
+                    .threads(threads)
+                    .shouldFailOnError(false)
+                    .build();
+
+            for (RunResult result : new Runner(opt).run()) {
+                throughput.computeIfAbsent(result.getParams().getParam("template"), t -> new TreeMap<>())
+                        .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        report(threadCounts, throughput, minEfficiency);
+    }
+
+    static List<Integer> threadCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() throws Exception {
+        renderer = ViewRenderer.generated(datasetSize);
+
+        reference = renderer.render(template).getContentAsByteArray();
+        if (reference.length == 0) {
+            throw new IllegalStateException("Template '" + template + "' rendered an empty page");
+        }
+        if (!Arrays.equals(reference, renderer.render(template).getContentAsByteArray())) {
+            // Not a concurrency problem, the engine does not render the same page twice on one thread
+            System.out.printf("%n%s renders a different page every time, its output is not compared%n", template);
+            reference = null;
+        }
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        byte[] page = renderer.render(template).getContentAsByteArray();
+        if (reference != null && !Arrays.equals(reference, page)) {
+            throw new IllegalStateException("Template '" + template + "' rendered a page that differs from the "
+                    + "single-threaded reference, " + page.length + " bytes instead of " + reference.length);
+        }
+        bh.consume(page);
+    }
+
+    static void report(List<Integer> threadCounts, Map<String, Map<Integer, Double>> throughput,
+            double minEfficiency) {
+        System.out.printf("%n%-12s %8s %14s %9s %11s%n", "template", "threads", "renders/ms", "speedup",
+                "efficiency");
+
+        Map<String, String> flagged = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<Integer, Double>> entry : throughput.entrySet()) {
+            String template = entry.getKey();
+            Double single = entry.getValue().get(1);
+            for (int threads : threadCounts) {
+                if (!entry.getValue().containsKey(threads)) {
+                    // The benchmark failed, see its output for the page that differed or the exception
+                    flagged.put(template, "failed with " + threads + " threads");
+                    break;
+                }
+            }
+
+            Double previous = null;
+            int previousThreads = 0;
+            for (Map.Entry<Integer, Double> run : entry.getValue().entrySet()) {
+                int threads = run.getKey();
+                double score = run.getValue();
+                double speedup = single == null ? Double.NaN : score / single;
+                double efficiency = speedup / threads;
+                System.out.printf(Locale.ROOT, "%-12s %8d %14.2f %9.2f %11.2f%n", template, threads, score,
+                        speedup, efficiency);
+
+                if (previous != null && score < previous * (1 + MIN_GAIN) && !flagged.containsKey(template)) {
+                    flagged.put(template, String.format(Locale.ROOT, "stops scaling past %d threads",
+                            previousThreads));
+                } else if (threads > 1 && efficiency < minEfficiency && !flagged.containsKey(template)) {
+                    flagged.put(template, String.format(Locale.ROOT, "reaches %.0f%% of a linear speedup at %d "
+                            + "threads", efficiency * 100, threads));
+                }
+                previous = score;
+                previousThreads = threads;
+            }
+        }
+
+        if (!flagged.isEmpty()) {
+            System.out.printf("%nEngines that failed or do not scale:%n");
+            flagged.forEach((template, reason) -> System.out.printf("  %-12s %s%n", template, reason));
+        }
+    }
+}
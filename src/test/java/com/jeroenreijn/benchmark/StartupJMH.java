@@ -0,0 +1,71 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.Launch;
+import com.jeroenreijn.examples.configuration.Engines;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application in a fresh JVM with all engines and with every engine on its own, see
+ * {@code engines.enabled}. The score is the time to start; the heap left after a full GC and the metaspace are
+ * printed after every start.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupJMH {
+    @Param({Engines.ALL})
+    public String engines;
+
+    private ConfigurableApplicationContext context;
+
+    public static void main(String[] args) throws Exception {
+        List<String> engines = new ArrayList<>();
+        engines.add(Engines.ALL);
+        engines.addAll(Engines.NAMES);
+
+        Options opt = new OptionsBuilder()
+                .include(StartupJMH.class.getName() + ".*")
+                .param("engines", engines.toArray(new String[0]))
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = SpringApplication.run(Launch.class, "--server.port=0", "--engines.enabled=" + engines);
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.gc();
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long metaspace = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool.getUsage().getUsed();
+            }
+        }
+        System.out.printf("%nengines=%s: heap after GC %.1f MB, metaspace %.1f MB%n", engines,
+                heap / 1048576.0, metaspace / 1048576.0);
+
+        context.close();
+    }
+}
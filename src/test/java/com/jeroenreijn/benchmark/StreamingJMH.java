@@ -0,0 +1,147 @@
+package com.jeroenreijn.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the buffered and the streaming render path of the HtmlFlow, Rocker and kotlinx.html views. Besides the
+ * time to render the whole page, the time until the first byte reaches the response is printed at the end of every
+ * trial. Run with the GC profiler to compare the allocations of both modes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StreamingJMH {
+    @Param({"htmlFlow", "rocker", "kotlinx"})
+    public String template;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    @Param({"100", "10000"})
+    public int datasetSize;
+
+    private ViewRenderer renderer;
+    private long firstByteNanos;
+    private long renders;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(StreamingJMH.class.getName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void initialize() {
+        renderer = ViewRenderer.get(
+                "--templates.streaming." + template + "=" + streaming,
+                "--presentations.generator.enabled=true",
+                "--presentations.generator.size=" + datasetSize);
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) throws Exception {
+        FirstByteResponse response = renderer.render(template, new FirstByteResponse());
+        response.flushBuffer();
+
+        firstByteNanos += response.getTimeToFirstByte();
+        renders++;
+        bh.consume(response.getContentAsByteArray());
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s streaming=%s presentations=%d: time to first byte %.1f us%n",
+                template, streaming, datasetSize, firstByteNanos / 1000.0 / Math.max(1, renders));
+    }
+
+    /**
+     * Remembers when the view wrote its first byte.
+     */
+    static class FirstByteResponse extends MockHttpServletResponse {
+        private final long created = System.nanoTime();
+        private long firstByte;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        long getTimeToFirstByte() {
+            return firstByte == 0 ? System.nanoTime() - created : firstByte - created;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        markFirstByte();
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        if (len > 0) {
+                            markFirstByte();
+                        }
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws UnsupportedEncodingException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        private void markFirstByte() {
+            if (firstByte == 0) {
+                firstByte = System.nanoTime();
+            }
+        }
+    }
+}
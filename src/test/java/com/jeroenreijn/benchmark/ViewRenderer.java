@@ -0,0 +1,215 @@
+package com.jeroenreijn.benchmark;
+
+import com.jeroenreijn.examples.Launch;
+import com.jeroenreijn.examples.configuration.Engines;
+import com.jeroenreijn.examples.controller.PresentationsController;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ModelMap;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders the listing page of a template engine the way the {@link DispatcherServlet} does it: the
+ * {@link PresentationsController} fills the model, the view name is resolved through the {@link ViewResolver}
+ * beans of the application and the resulting {@link View} is rendered into a {@link MockHttpServletResponse}.
+ *
+ * One application context is shared by all benchmarks running in the same JVM. Asking for a renderer with
+ * different arguments closes the running context and starts a new one.
+ *
+ * The benchmarks that render every engine declare {@link Engines#ALL} as their {@code template} parameter, as JMH
+ * only takes literal values, and run with the options of {@link #everyEngine(Class)}, which replace it with the
+ * names of {@link Engines#NAMES}. From the JMH command line, pass them with {@code -p template=...}.
+ */
+public class ViewRenderer {
+    private static final String[] ENGINES = Engines.NAMES.toArray(new String[0]);
+
+    private static ViewRenderer current;
+
+    private final String[] args;
+    private final ConfigurableApplicationContext context;
+    private final ServletContext servletContext;
+    private final PresentationsController controller;
+    private final LocaleResolver localeResolver;
+    private final List<ViewResolver> viewResolvers;
+
+    private ViewRenderer(String[] args) {
+        this.args = args;
+
+        // The benchmarks warm up the engines themselves, and measure them without the metrics of the production
+        // profile unless they ask for them
+        List<String> launchArgs = new ArrayList<>(Arrays.asList(args));
+        launchArgs.add("--server.port=0");
+        launchArgs.add("--templates.warmup.enabled=false");
+        withDefault(launchArgs, "templates.metrics.enabled", "false");
+        this.context = SpringApplication.run(Launch.class, launchArgs.toArray(new String[0]));
+        this.servletContext = ((WebApplicationContext) context).getServletContext();
+        this.controller = context.getBean(PresentationsController.class);
+        this.localeResolver = context.getBean(LocaleResolver.class);
+
+        this.viewResolvers = new ArrayList<>(
+                BeanFactoryUtils.beansOfTypeIncludingAncestors(context, ViewResolver.class, true, false).values());
+        AnnotationAwareOrderComparator.sort(this.viewResolvers);
+    }
+
+    /**
+     * A renderer of the {@code production} profile, unless the arguments name another, over the given number of
+     * generated presentations.
+     */
+    public static ViewRenderer generated(int presentations, String... args) {
+        List<String> launchArgs = new ArrayList<>(Arrays.asList(args));
+        withDefault(launchArgs, "spring.profiles.active", "production");
+        launchArgs.add("--presentations.generator.enabled=true");
+        launchArgs.add("--presentations.generator.size=" + presentations);
+
+        return get(launchArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Options that include the benchmarks of the given class and run them for every engine.
+     */
+    public static ChainedOptionsBuilder everyEngine(Class<?> benchmark) {
+        return new OptionsBuilder()
+                .include(benchmark.getName() + ".*")
+                .param("template", ENGINES);
+    }
+
+    /**
+     * Adds the property to the launch arguments unless they already set it. Spring joins a property given twice
+     * with a comma.
+     */
+    private static void withDefault(List<String> launchArgs, String name, String value) {
+        String prefix = "--" + name + "=";
+        if (launchArgs.stream().noneMatch(arg -> arg.startsWith(prefix))) {
+            launchArgs.add(prefix + value);
+        }
+    }
+
+    public static synchronized ViewRenderer get(String... args) {
+        if (current != null && !Arrays.equals(current.args, args)) {
+            current.context.close();
+            current = null;
+        }
+        if (current == null) {
+            current = new ViewRenderer(args);
+        }
+        return current;
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public List<ViewResolver> getViewResolvers() {
+        return viewResolvers;
+    }
+
+    public MockHttpServletRequest createRequest(String template) {
+        MockHttpServletRequest request = new ContainerForwardingRequest(servletContext, "/" + template);
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        request.setAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE, localeResolver);
+
+        return request;
+    }
+
+    /**
+     * Resolves a view name against the resolver chain, in the order used by the {@link DispatcherServlet}.
+     */
+    public View resolveViewName(String viewName, Locale locale) throws Exception {
+        for (ViewResolver viewResolver : viewResolvers) {
+            View view = viewResolver.resolveViewName(viewName, locale);
+            if (view != null) {
+                return view;
+            }
+        }
+        throw new IllegalStateException("Could not resolve view with name '" + viewName + "'");
+    }
+
+    /**
+     * Handles a full request for the listing page of the given template: controller, view resolution and
+     * rendering.
+     */
+    public MockHttpServletResponse render(String template) throws Exception {
+        return render(template, new MockHttpServletResponse());
+    }
+
+    public <T extends MockHttpServletResponse> T render(String template, T response) throws Exception {
+        render(template, createRequest(template), response);
+
+        return response;
+    }
+
+    /**
+     * Renders the listing page into the given request and response, for instance the ones handed to a filter chain.
+     * The request should come from {@link #createRequest(String)}.
+     */
+    public void render(String template, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        ModelMap model = new ModelMap();
+
+        String viewName = controller.showList(request, template, intParameter(request, "page"),
+                intParameter(request, "size"), longParameter(request, "after"), model);
+        Locale locale = localeResolver.resolveLocale(request);
+        View view = resolveViewName(viewName, locale);
+
+        render(view, model, request, response, locale);
+    }
+
+    public void render(View view, ModelMap model, HttpServletRequest request, HttpServletResponse response,
+            Locale locale) throws Exception {
+        response.setLocale(locale);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            view.render(model, request, response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static Integer intParameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static Long longParameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    /**
+     * JSP views forward to the JSP servlet, which only exists inside the embedded container. A mock request
+     * dispatcher would only record the forward, so we hand out the container's dispatcher instead.
+     */
+    private static class ContainerForwardingRequest extends MockHttpServletRequest {
+        private final ServletContext servletContext;
+
+        ContainerForwardingRequest(ServletContext servletContext, String requestURI) {
+            super(servletContext, "GET", requestURI);
+            this.servletContext = servletContext;
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(String path) {
+            return servletContext.getRequestDispatcher(path);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jeroenreijn.examples.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class PinnedVirtualThreadsMeterTest {
+
+	@Test
+	public void should_attribute_a_park_to_the_engine_nearest_to_it() {
+		assertEquals("freemarker", PinnedVirtualThreadsMeter.engine(Arrays.asList(
+				"java.lang.VirtualThread",
+				"org.apache.tomcat.util.net.NioEndpoint$NioSocketWrapper",
+				"org.apache.catalina.connector.OutputBuffer",
+				"freemarker.core.Environment",
+				"com.jeroenreijn.examples.view.MeteredView",
+				"org.thymeleaf.spring5.view.ThymeleafView",
+				"org.apache.catalina.core.ApplicationFilterChain")));
+	}
+
+	@Test
+	public void should_attribute_the_views_of_this_application_to_their_engine() {
+		assertEquals("rocker", PinnedVirtualThreadsMeter.engine(Arrays.asList(
+				"java.lang.VirtualThread",
+				"com.jeroenreijn.examples.view.RockerView",
+				"org.springframework.web.servlet.DispatcherServlet")));
+	}
+
+	@Test
+	public void should_leave_out_parks_without_engine_frames() {
+		assertNull(PinnedVirtualThreadsMeter.engine(Arrays.asList(
+				"java.lang.VirtualThread",
+				"org.apache.tomcat.util.net.NioEndpoint$NioSocketWrapper",
+				"org.apache.coyote.http11.Http11Processor",
+				"com.jeroenreijn.examples.view.MeteredView")));
+	}
+}
@@ -0,0 +1,29 @@
+package com.jeroenreijn.examples.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class PageFragmentsTest {
+
+	@Test
+	public void should_encode_the_fragments_when_they_are_created() {
+		PageFragments fragments = new PageFragments("<title>Talks &amp; Tips</title>",
+				"<script src=\"a.js\"></script>");
+
+		assertTrue(fragments.getHeadText().isEncoded());
+		assertTrue(fragments.getScriptsText().isEncoded());
+		assertArrayEquals("<title>Talks &amp; Tips</title>".getBytes(StandardCharsets.UTF_8),
+				fragments.getHeadText().getUtf8());
+	}
+
+	@Test
+	public void should_leave_texts_made_with_of_to_be_encoded_when_used() {
+		assertFalse(EncodedText.of("Talks & Tips").isEncoded());
+		assertTrue(EncodedText.encode("Talks & Tips").isEncoded());
+	}
+}
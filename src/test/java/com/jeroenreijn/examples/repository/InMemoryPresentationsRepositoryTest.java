@@ -0,0 +1,106 @@
+package com.jeroenreijn.examples.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jeroenreijn.examples.model.Presentation;
+
+public class InMemoryPresentationsRepositoryTest {
+
+	private InMemoryPresentationsRepository repository;
+
+	@Before
+	public void setUp() throws Exception {
+		List<Presentation> presentations = new ArrayList<>();
+		presentations.add(presentation(3L, "Room 1", "Jeroen Reijn", 3000L));
+		presentations.add(presentation(1L, "Room 2", "Niels van Eijck", 1000L));
+		presentations.add(presentation(2L, "Room 1", "Jeroen Reijn", 2000L));
+		repository = new InMemoryPresentationsRepository(presentations);
+	}
+
+	@Test
+	public void should_find_all_ordered_by_id() {
+		assertEquals(ids(1L, 2L, 3L), ids(repository.findAll()));
+	}
+
+	@Test
+	public void should_return_empty_for_missing_id() {
+		assertFalse(repository.findById(42L).isPresent());
+		assertTrue(repository.findById(2L).isPresent());
+	}
+
+	@Test
+	public void should_find_by_start_time_range() {
+		assertEquals(ids(1L, 2L, 3L), ids(repository.findAllOrderByStartTime()));
+		assertEquals(ids(2L), ids(repository.findByStartTimeBetween(new Date(1500L), new Date(3000L))));
+		assertEquals(ids(), ids(repository.findByStartTimeBetween(new Date(3000L), new Date(1000L))));
+	}
+
+	@Test
+	public void should_find_by_room_and_speaker() {
+		assertEquals(ids(2L, 3L), ids(repository.findByRoom("Room 1")));
+		assertEquals(ids(1L), ids(repository.findBySpeakerName("Niels van Eijck")));
+		assertEquals(ids(), ids(repository.findByRoom("Room 3")));
+	}
+
+	@Test
+	public void should_find_slices_by_offset_and_after_id() {
+		assertEquals(ids(2L, 3L), ids(repository.findAll(1, 5)));
+		assertEquals(ids(), ids(repository.findAll(5, 5)));
+		assertEquals(ids(3L), ids(repository.findAllAfter(2L, 5)));
+		assertEquals(ids(1L, 2L), ids(repository.findAllAfter(0L, 2)));
+	}
+
+	@Test
+	public void should_publish_a_new_snapshot_on_write() {
+		Iterable<Presentation> before = repository.findAll();
+		long version = repository.getVersion();
+
+		Presentation saved = repository.save(presentation(null, "Room 3", "Bert Ertman", 500L));
+		assertEquals(Long.valueOf(4L), saved.getId());
+		assertTrue(repository.delete(1L));
+		assertFalse(repository.delete(1L));
+
+		assertEquals(ids(1L, 2L, 3L), ids(before));
+		assertEquals(ids(2L, 3L, 4L), ids(repository.findAll()));
+		assertEquals(ids(4L, 2L, 3L), ids(repository.findAllOrderByStartTime()));
+		assertEquals(ids(4L), ids(repository.findByRoom("Room 3")));
+		assertNotEquals(version, repository.getVersion());
+	}
+
+	private static Presentation presentation(Long id, String room, String speakerName, long startTime) {
+		Presentation presentation = new Presentation();
+		presentation.setId(id);
+		presentation.setTitle("Presentation " + id);
+		presentation.setRoom(room);
+		presentation.setSpeakerName(speakerName);
+		presentation.setStartTime(new Date(startTime));
+
+		return presentation;
+	}
+
+	private static List<Long> ids(Long... ids) {
+		List<Long> list = new ArrayList<>();
+		for (Long id : ids) {
+			list.add(id);
+		}
+		return list;
+	}
+
+	private static List<Long> ids(Iterable<Presentation> presentations) {
+		List<Long> list = new ArrayList<>();
+		for (Presentation presentation : presentations) {
+			list.add(presentation.getId());
+		}
+		return list;
+	}
+}
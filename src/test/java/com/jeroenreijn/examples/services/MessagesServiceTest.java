@@ -0,0 +1,43 @@
+package com.jeroenreijn.examples.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+public class MessagesServiceTest {
+
+	private MessagesService messagesService;
+
+	@Before
+	public void setUp() throws Exception {
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("example.title", Locale.US, "Talks");
+		messageSource.addMessage("example.title", Locale.GERMANY, "Vorträge");
+
+		messagesService = new MessagesService();
+		messagesService.messageSource = messageSource;
+		messagesService.resourceLoader = new DefaultResourceLoader();
+		messagesService.locales = new String[] { "en_US", "de_DE" };
+		messagesService.afterPropertiesSet();
+	}
+
+	@Test
+	public void should_hand_out_the_tables_of_the_configured_locales() {
+		assertEquals("Talks", messagesService.forLocale(Locale.US).message("example.title"));
+		assertEquals("Vorträge", messagesService.forLocale(Locale.GERMANY).message("example.title"));
+	}
+
+	@Test
+	public void should_map_other_locales_to_a_configured_one() {
+		assertSame(messagesService.forLocale(Locale.GERMANY), messagesService.forLocale(new Locale("de", "AT")));
+		assertSame(messagesService.forLocale(Locale.US), messagesService.forLocale(Locale.UK));
+		assertSame(messagesService.forLocale(Locale.US), messagesService.forLocale(Locale.JAPAN));
+		assertSame(messagesService.forLocale(Locale.US), messagesService.forLocale(new Locale("xx", "YY", "zz")));
+	}
+}
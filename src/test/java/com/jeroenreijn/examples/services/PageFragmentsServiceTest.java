@@ -0,0 +1,86 @@
+package com.jeroenreijn.examples.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.jeroenreijn.examples.model.PageFragments;
+
+public class PageFragmentsServiceTest {
+
+	private MessagesService messagesService;
+
+	@Before
+	public void setUp() throws Exception {
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("example.title", Locale.US, "Talks & Tips");
+		messageSource.addMessage("example.title", Locale.GERMANY, "Vorträge");
+
+		messagesService = new MessagesService();
+		messagesService.messageSource = messageSource;
+		messagesService.resourceLoader = new DefaultResourceLoader();
+		messagesService.locales = new String[] { "en_US", "de_DE" };
+		messagesService.afterPropertiesSet();
+	}
+
+	@Test
+	public void should_render_the_fragments_of_an_engine_once_per_locale() throws Exception {
+		PageFragmentsService service = service(true, "all");
+
+		PageFragments fragments = service.forPage("mustache", Locale.US);
+		assertTrue(fragments.getHead().contains("<title>Talks &amp; Tips - Mustache</title>"));
+		assertTrue(fragments.getHead().contains("href=\"/talks/webjars/bootstrap/"));
+		assertTrue(fragments.getScripts().startsWith("<script src=\"/talks/webjars/jquery/"));
+		assertArrayEquals(fragments.getHead().getBytes(StandardCharsets.UTF_8), fragments.getHeadText().getUtf8());
+		assertSame(fragments, service.forPage("mustache", Locale.US));
+
+		assertTrue(service.forPage("freemarker", Locale.GERMANY).getHead()
+				.contains("<title>Vorträge - Freemarker</title>"));
+	}
+
+	@Test
+	public void should_hand_other_locales_the_fragments_of_a_configured_one() throws Exception {
+		PageFragmentsService service = service(true, "all");
+
+		assertSame(service.forPage("mustache", Locale.GERMANY), service.forPage("mustache", new Locale("de", "AT")));
+		assertSame(service.forPage("mustache", Locale.US), service.forPage("mustache", Locale.JAPAN));
+	}
+
+	@Test
+	public void should_leave_the_partials_to_engines_without_fragments() throws Exception {
+		assertNull(service(true, "all").forPage("htmlFlow", Locale.US));
+		assertNull(service(false, "all").forPage("mustache", Locale.US));
+	}
+
+	@Test
+	public void should_render_fragments_for_enabled_engines_only() throws Exception {
+		PageFragmentsService service = service(true, "mustache,htmlFlow");
+
+		assertTrue(service.forPage("mustache", Locale.US).getHead().contains("- Mustache</title>"));
+		assertNull(service.forPage("freemarker", Locale.US));
+		assertNull(service.forPage("htmlFlow", Locale.US));
+	}
+
+	private PageFragmentsService service(boolean enabled, String engines) throws Exception {
+		PageFragmentsService service = new PageFragmentsService();
+		service.messagesService = messagesService;
+		service.resourceLoader = new DefaultResourceLoader();
+		service.environment = new MockEnvironment().withProperty("engines.enabled", engines);
+		service.enabled = enabled;
+		service.locales = new String[] { "en_US", "de_DE" };
+		service.contextPath = "/talks";
+		service.afterPropertiesSet();
+
+		return service;
+	}
+}
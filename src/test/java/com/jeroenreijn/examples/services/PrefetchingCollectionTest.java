@@ -0,0 +1,94 @@
+package com.jeroenreijn.examples.services;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class PrefetchingCollectionTest {
+
+	private final Executor executor = command -> new Thread(command).start();
+
+	@Test
+	public void should_iterate_all_pages_in_order() {
+		assertEquals(range(1, 7), list(collection(7, 3, 2)));
+		assertEquals(range(1, 6), list(collection(6, 3, 1)));
+		assertEquals(range(1, 0), list(collection(0, 3, 2)));
+	}
+
+	@Test
+	public void should_fetch_the_next_pages_before_the_current_one_is_consumed() throws Exception {
+		List<Integer> requested = new CopyOnWriteArrayList<>();
+		CountDownLatch thirdPage = new CountDownLatch(1);
+		PrefetchingCollection<Integer> collection = new PrefetchingCollection<>(last -> {
+			requested.add(last == null ? 0 : last);
+			if (requested.size() == 3) {
+				thirdPage.countDown();
+			}
+			return pagesOf(range(1, 100), 10).apply(last);
+		}, () -> 100, 10, 2, executor);
+
+		assertTrue(collection.iterator().hasNext());
+		assertTrue(thirdPage.await(5, TimeUnit.SECONDS));
+		assertEquals(asList(0, 10, 20), requested);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void should_rethrow_the_failure_of_a_fetch() {
+		PrefetchingCollection<Integer> collection = new PrefetchingCollection<>(last -> {
+			if (last != null) {
+				throw new IllegalStateException("back-end down");
+			}
+			return range(1, 3);
+		}, () -> 3, 3, 2, executor);
+
+		list(collection);
+	}
+
+	@Test
+	public void should_read_the_source_again_for_every_iteration() {
+		PrefetchingCollection<Integer> collection = collection(4, 2, 1);
+
+		assertEquals(range(1, 4), list(collection));
+		assertEquals(range(1, 4), list(collection));
+		assertEquals(4, collection.size());
+		assertTrue(collection(0, 2, 1).isEmpty());
+	}
+
+	private PrefetchingCollection<Integer> collection(int count, int pageSize, int prefetch) {
+		return new PrefetchingCollection<>(pagesOf(range(1, count), pageSize), () -> count, pageSize, prefetch,
+				executor);
+	}
+
+	private static Function<Integer, List<Integer>> pagesOf(List<Integer> all, int size) {
+		return last -> {
+			int from = last == null ? 0 : all.indexOf(last) + 1;
+			return from >= all.size() ? Collections.emptyList()
+					: new ArrayList<>(all.subList(from, Math.min(from + size, all.size())));
+		};
+	}
+
+	private static List<Integer> range(int first, int last) {
+		List<Integer> range = new ArrayList<>();
+		for (int i = first; i <= last; i++) {
+			range.add(i);
+		}
+		return range;
+	}
+
+	private static List<Integer> list(Iterable<Integer> iterable) {
+		List<Integer> list = new ArrayList<>();
+		iterable.forEach(list::add);
+		return list;
+	}
+}
@@ -0,0 +1,41 @@
+package com.jeroenreijn.examples.view;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.jeroenreijn.examples.model.Presentation;
+
+public class LiqpModelAdapterTest {
+
+	@Test
+	public void should_adapt_interleaved_models_to_their_own_presentations() {
+		LiqpModelAdapter adapter = new LiqpModelAdapter();
+		List<Presentation> first = Arrays.asList(presentation(1L, "One"), presentation(2L, "Two"));
+		List<Presentation> second = Arrays.asList(presentation(3L, "Three"));
+
+		assertEquals(Arrays.asList("One", "Two"), titles(adapter.adapt(first)));
+		assertEquals(Arrays.asList("Three"), titles(adapter.adapt(second)));
+		assertEquals(Arrays.asList("One", "Two"), titles(adapter.adapt(first)));
+
+		first.get(0).setTitle("Changed");
+		assertEquals(Arrays.asList("Changed", "Two"), titles(adapter.adapt(first)));
+		assertEquals(Arrays.asList("Three"), titles(adapter.adapt(second)));
+	}
+
+	private static Presentation presentation(Long id, String title) {
+		Presentation presentation = new Presentation();
+		presentation.setId(id);
+		presentation.setTitle(title);
+		return presentation;
+	}
+
+	private static List<Object> titles(List<Map<String, Object>> maps) {
+		return maps.stream().map(map -> map.get("title")).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,31 @@
+package com.jeroenreijn.examples.view;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.jeroenreijn.examples.configuration.Engines;
+
+public class MeteredViewResolverPostProcessorTest {
+
+	@Test
+	public void should_tag_the_resolvers_of_spring_boot_with_their_engine() {
+		assertEquals("freemarker", MeteredViewResolverPostProcessor.engine("freeMarkerViewResolver"));
+		assertEquals("groovy", MeteredViewResolverPostProcessor.engine("groovyMarkupViewResolver"));
+		assertEquals("mustache", MeteredViewResolverPostProcessor.engine("mustacheViewResolver"));
+	}
+
+	@Test
+	public void should_tag_the_resolvers_of_this_application_with_their_engine() {
+		assertEquals("kotlinx", MeteredViewResolverPostProcessor.engine("kotlinxHtmlViewResolver"));
+		assertEquals("htmlFlow", MeteredViewResolverPostProcessor.engine("htmlFlowViewResolver"));
+		for (String engine : Engines.NAMES) {
+			assertEquals(engine, MeteredViewResolverPostProcessor.engine(engine + "ViewResolver"));
+		}
+	}
+
+	@Test
+	public void should_tag_other_resolvers_with_their_bean_name() {
+		assertEquals("beanNameViewResolver", MeteredViewResolverPostProcessor.engine("beanNameViewResolver"));
+	}
+}
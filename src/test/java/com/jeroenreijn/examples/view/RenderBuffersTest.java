@@ -0,0 +1,65 @@
+package com.jeroenreijn.examples.view;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RenderBuffersTest {
+
+	@Test
+	public void should_encode_like_string_get_bytes() throws Exception {
+		String page = "<p>café € 😀 \ud800x \udc00</p>";
+		RenderBuffer buffer = new RenderBuffers().acquire("index");
+		Writer writer = buffer.getWriter();
+		// The emoji is split over two writes
+		writer.write(page.substring(0, 11));
+		writer.write(page.toCharArray(), 11, 3);
+		writer.append(new StringBuilder(page.substring(14)));
+		writer.write('\ud83d');
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		buffer.writeTo(response);
+
+		byte[] expected = (page + '\ud83d').getBytes(StandardCharsets.UTF_8);
+		assertArrayEquals(expected, response.getContentAsByteArray());
+		assertEquals(expected.length, response.getContentLength());
+	}
+
+	@Test
+	public void should_reuse_buffers_and_size_new_ones_from_recent_pages() {
+		RenderBuffers renderBuffers = new RenderBuffers();
+		RenderBuffer first = renderBuffers.acquire("index");
+		first.write(new byte[4000], 0, 4000);
+		first.release();
+
+		RenderBuffer second = renderBuffers.acquire("index");
+		RenderBuffer third = renderBuffers.acquire("index");
+		assertSame(first, second);
+		assertEquals(0, second.size());
+		assertEquals(5000, third.capacity());
+		assertEquals(4000, renderBuffers.getExpectedSize("index"));
+		assertEquals(2, renderBuffers.getAllocated());
+		assertEquals(1, renderBuffers.getReused());
+	}
+
+	@Test
+	public void should_drop_buffers_grown_far_beyond_recent_pages() {
+		RenderBuffers renderBuffers = new RenderBuffers();
+		RenderBuffer small = renderBuffers.acquire("index");
+		small.write(new byte[1000], 0, 1000);
+		small.release();
+
+		RenderBuffer large = renderBuffers.acquire("index");
+		large.write(new byte[100_000], 0, 100_000);
+		large.release();
+
+		assertNotSame(large, renderBuffers.acquire("index"));
+	}
+}
@@ -0,0 +1,52 @@
+package com.jeroenreijn.examples.view;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class WhitespaceCollapserTest {
+
+	@Test
+	public void should_collapse_whitespace_runs() {
+		assertEquals("<html>\n<head>\n<title>A - B</title>\n</head>\n<p>one two\nthree</p>\n</html>",
+				collapse("\n  <html>\n    <head>\n      <title>A  -   B</title>\n    </head>\n"
+						+ "    <p>one \t two  \n   three</p>\n</html>\n\n"));
+	}
+
+	@Test
+	public void should_keep_attribute_values_and_raw_elements() {
+		assertEquals("<div title=\"a  b\"\nclass='x\n y'>\n<pre>  keep\n  this </pre>\n<b>x</b></div>",
+				collapse("<div  title=\"a  b\"\n     class='x\n y'>\n  <pre>  keep\n  this </pre>\n  <b>x</b></div>"));
+		assertEquals("<script>\n  var a = '  ';\n</SCRIPT>\n<textarea> </textarea>",
+				collapse("<script>\n  var a = '  ';\n</SCRIPT>   \n <textarea> </textarea>"));
+	}
+
+	@Test
+	public void should_collapse_across_writes() {
+		WhitespaceCollapser collapser = new WhitespaceCollapser();
+		StringBuilder out = new StringBuilder();
+		for (String part : new String[] { "<p>a  ", "  ", "\n b</p", ">  <pr", "e> x  </p", "re>" }) {
+			char[] buffer = new char[part.length() + 1];
+			out.append(buffer, 0, collapser.collapse(part.toCharArray(), 0, part.length(), buffer));
+		}
+		assertEquals("<p>a\nb</p> <pre> x  </pre>", out.toString());
+	}
+
+	@Test
+	public void should_collapse_utf8_bytes_like_characters() {
+		String html = "<p>  café   €  \n😀 </p>";
+		byte[] in = html.getBytes(StandardCharsets.UTF_8);
+		byte[] out = new byte[in.length + 1];
+		int n = new WhitespaceCollapser().collapse(in, 0, in.length, out);
+
+		assertEquals(collapse(html), new String(out, 0, n, StandardCharsets.UTF_8));
+	}
+
+	private static String collapse(String html) {
+		char[] out = new char[html.length() + 1];
+		int n = new WhitespaceCollapser().collapse(html.toCharArray(), 0, html.length(), out);
+		return new String(out, 0, n);
+	}
+}